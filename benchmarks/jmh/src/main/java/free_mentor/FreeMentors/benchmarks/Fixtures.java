@@ -0,0 +1,64 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.benchmarks;
+
+import free_mentor.FreeMentors.entity.MentorshipSession;
+import free_mentor.FreeMentors.entity.Role;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.entity.User;
+
+import java.time.Instant;
+
+/*
+ * Sample entities shaped like production rows, shared by the benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static User mentor() {
+        return User.builder()
+                .id(42L)
+                .firstName("Amina")
+                .lastName("Uwase")
+                .email("amina.uwase@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1sL0MFZ1Nfcb9a5E6z7G9cK")
+                .address("KG 7 Ave, Kigali")
+                .bio("Backend engineer mentoring on distributed systems, databases and career growth.")
+                .occupation("Staff Engineer")
+                .expertise("Java, Spring Boot, MySQL, system design")
+                .role(Role.MENTOR)
+                .build();
+    }
+
+    static User mentee() {
+        return User.builder()
+                .id(1042L)
+                .firstName("Eric")
+                .lastName("Mugisha")
+                .email("eric.mugisha@example.com")
+                .password("$2a$10$Qm3n4W1x9yK0pL2sT5vB8uJ6hG7fD3cA1zX0wV9bN8mE4rT2yU6iO")
+                .bio("Final-year computer science student.")
+                .occupation("Student")
+                .expertise("Java")
+                .role(Role.USER)
+                .build();
+    }
+
+    static MentorshipSession session() {
+        User mentee = mentee();
+        return MentorshipSession.builder()
+                .id(98765L)
+                .mentor(mentor())
+                .mentee(mentee)
+                .questions("How should I prepare for backend interviews, and which projects are worth building?")
+                .menteeEmail(mentee.getEmail())
+                .status(SessionStatus.APPROVED)
+                .updatedAt(Instant.parse("2026-10-01T09:30:00Z"))
+                .version(3)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import free_mentor.FreeMentors.entity.MentorshipSession;
+import free_mentor.FreeMentors.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Jackson serialization of the entities as the web layer writes them. A session serializes its
+ * mentor and mentee in full, so it costs roughly three objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private User user;
+    private MentorshipSession session;
+
+    /*
+     * Configured like Spring Boot's auto-configured mapper: the builder's defaults, JSR-310 types
+     * found on the classpath, and dates written as ISO strings.
+     */
+    static ObjectMapper springObjectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Setup
+    public void setUp() {
+        objectMapper = springObjectMapper();
+        user = Fixtures.mentor();
+        session = Fixtures.session();
+    }
+
+    @Benchmark
+    public byte[] user() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] mentorshipSession() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(session);
+    }
+
+    @Benchmark
+    public String mentorshipSessionAsString() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(session);
+    }
+}
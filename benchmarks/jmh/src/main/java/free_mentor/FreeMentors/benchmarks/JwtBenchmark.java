@@ -0,0 +1,61 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.benchmarks;
+
+import free_mentor.FreeMentors.dto.JwtPrincipal;
+import free_mentor.FreeMentors.utils.JwtKeyRing;
+import free_mentor.FreeMentors.utils.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Token issue (sign-in, refresh) and verification (every authenticated request).
+ *
+ * extractAllClaims is private; parseToken calls it exactly once and adds only the principal, and
+ * extractEmail shows the cost of the single-claim helpers that parse the token again on each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        // No keyring path: a random HS256 key, as on a development node
+        jwtUtil = new JwtUtil(new JwtKeyRing("", "", ""), 900, 1209600);
+        token = jwtUtil.generateToken(1042L, "eric.mugisha@example.com", "MENTOR");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(1042L, "eric.mugisha@example.com", "MENTOR");
+    }
+
+    @Benchmark
+    public JwtPrincipal parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import free_mentor.FreeMentors.entity.MentorshipSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * The {"status": .., "data": {..}} body MentorshipSessionController builds for a new session,
+ * built the way the controller does today (HashMap envelope, Map.of data), with HashMaps only as
+ * on the waitlist path, and fully immutable; the *Json variants also write it as Jackson would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBuildingBenchmark {
+
+    private MentorshipSession session;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        session = Fixtures.session();
+        objectMapper = JsonSerializationBenchmark.springObjectMapper();
+    }
+
+    @Benchmark
+    public Map<String, Object> hashMapWithMapOfData() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.CREATED.value());
+        response.put("data", Map.of(
+                "sessionId", session.getId(),
+                "mentorId", session.getMentor().getId(),
+                "menteeId", session.getMentee().getId(),
+                "questions", session.getQuestions(),
+                "menteeEmail", session.getMenteeEmail(),
+                "status", session.getStatus().toString()
+        ));
+        return response;
+    }
+
+    @Benchmark
+    public Map<String, Object> hashMapOnly() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("sessionId", session.getId());
+        data.put("mentorId", session.getMentor().getId());
+        data.put("menteeId", session.getMentee().getId());
+        data.put("questions", session.getQuestions());
+        data.put("menteeEmail", session.getMenteeEmail());
+        data.put("status", session.getStatus().toString());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.CREATED.value());
+        response.put("data", data);
+        return response;
+    }
+
+    @Benchmark
+    public Map<String, Object> linkedHashMapPresized() {
+        Map<String, Object> data = new LinkedHashMap<>(8);
+        data.put("sessionId", session.getId());
+        data.put("mentorId", session.getMentor().getId());
+        data.put("menteeId", session.getMentee().getId());
+        data.put("questions", session.getQuestions());
+        data.put("menteeEmail", session.getMenteeEmail());
+        data.put("status", session.getStatus().toString());
+
+        Map<String, Object> response = new LinkedHashMap<>(4);
+        response.put("status", HttpStatus.CREATED.value());
+        response.put("data", data);
+        return response;
+    }
+
+    @Benchmark
+    public Map<String, Object> mapOfOnly() {
+        return Map.of(
+                "status", HttpStatus.CREATED.value(),
+                "data", Map.of(
+                        "sessionId", session.getId(),
+                        "mentorId", session.getMentor().getId(),
+                        "menteeId", session.getMentee().getId(),
+                        "questions", session.getQuestions(),
+                        "menteeEmail", session.getMenteeEmail(),
+                        "status", session.getStatus().toString()
+                ));
+    }
+
+    @Benchmark
+    public byte[] hashMapWithMapOfDataJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(hashMapWithMapOfData());
+    }
+
+    @Benchmark
+    public byte[] mapOfOnlyJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapOfOnly());
+    }
+}
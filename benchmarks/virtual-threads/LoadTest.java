@@ -0,0 +1,128 @@
+/*
+Group 18
+ */
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Closed-loop HTTP load generator: each of the client threads sends a request, waits for the
+ * response and sends the next one, cycling through the given paths. Latencies are recorded only
+ * after the warmup, and the run prints throughput and latency percentiles.
+ *
+ * Run with the JDK alone (no build): java LoadTest.java <baseUrl> <token> <clients> <warmupSeconds>
+ * <measureSeconds> <path> [<path>...]. The last line of output is a CSV row for results files.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 6) {
+            System.err.println("usage: java LoadTest.java <baseUrl> <token> <clients> <warmupSeconds> <measureSeconds> <path>...");
+            System.exit(2);
+        }
+        String baseUrl = args[0];
+        String token = args[1];
+        int clients = Integer.parseInt(args[2]);
+        long warmupNanos = Duration.ofSeconds(Long.parseLong(args[3])).toNanos();
+        long measureNanos = Duration.ofSeconds(Long.parseLong(args[4])).toNanos();
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : Arrays.copyOfRange(args, 5, args.length)) {
+            requests.add(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build());
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + measureNanos;
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int c = 0; c < clients; c++) {
+            int id = c;
+            Thread thread = new Thread(() -> {
+                long[] samples = new long[1 << 16];
+                int n = 0;
+                int next = id;
+                try {
+                    while (true) {
+                        long sent = System.nanoTime();
+                        if (sent >= end) {
+                            break;
+                        }
+                        boolean ok;
+                        try {
+                            HttpResponse<Void> response = client.send(requests.get(next++ % requests.size()),
+                                    HttpResponse.BodyHandlers.discarding());
+                            ok = response.statusCode() < 400;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long received = System.nanoTime();
+                        if (sent < measureFrom) {
+                            continue;
+                        }
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                        if (n == samples.length) {
+                            samples = Arrays.copyOf(samples, n * 2);
+                        }
+                        samples[n++] = received - sent;
+                    }
+                } finally {
+                    latencies[id] = samples;
+                    counts[id] = n;
+                    done.countDown();
+                }
+            }, "load-" + c);
+            thread.start();
+        }
+        done.await();
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+
+        double seconds = measureNanos / 1e9;
+        double throughput = total / seconds;
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n", total, errors.get(), throughput);
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                millis(all, 0.50), millis(all, 0.90), millis(all, 0.99), millis(all, 1.0));
+        System.out.printf("csv,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f%n", clients, total, errors.get(), throughput,
+                millis(all, 0.50), millis(all, 0.90), millis(all, 0.99), millis(all, 1.0));
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,116 @@
+#!/usr/bin/env bash
+#
+# Compares request handling on Tomcat's platform-thread pool with virtual threads.
+#
+# Builds the app with the java21 profile, then for each mode starts it against the same database,
+# drives it with LoadTest.java at each client count and stops it. Both modes get the same
+# connection pool and the same Tomcat thread cap, so only the threading model differs.
+#
+# Needs JDK 21 on the PATH and the database from application.properties (override with the usual
+# SPRING_DATASOURCE_* variables). Results are printed and written to results/<timestamp>.csv.
+#
+# Settings (environment): CLIENTS="50 200 800" WARMUP=10 DURATION=30 TOMCAT_THREADS=200 POOL_SIZE=10 PORT=9090
+#
+set -euo pipefail
+
+cd "$(dirname "$0")"
+HERE=$(pwd)
+ROOT=$(cd ../.. && pwd)
+
+CLIENTS=${CLIENTS:-"50 200 800"}
+WARMUP=${WARMUP:-10}
+DURATION=${DURATION:-30}
+TOMCAT_THREADS=${TOMCAT_THREADS:-200}
+POOL_SIZE=${POOL_SIZE:-10}
+PORT=${PORT:-9090}
+BASE="http://localhost:$PORT"
+# Endpoints any signed-in user can call; each authenticates and reads from the database
+PATHS=("/sessions/dashboard" "/sessions/waitlist" "/mentors")
+
+java_major=$(java -XshowSettings:properties -version 2>&1 | awk -F= '/java.specification.version/ {gsub(/ /, "", $2); print $2}')
+if [ "${java_major%%.*}" -lt 21 ]; then
+  echo "JDK 21 or newer is required, found $java_major" >&2
+  exit 1
+fi
+
+(cd "$ROOT" && ./mvnw -B -q -P java21 -DskipTests package)
+JAR=$(ls "$ROOT"/target/FreeMentors-*.jar | grep -v original | head -1)
+
+mkdir -p "$HERE/results"
+RESULTS="$HERE/results/$(date +%Y%m%d-%H%M%S).csv"
+echo "mode,clients,requests,errors,throughput,p50_ms,p90_ms,p99_ms,max_ms" > "$RESULTS"
+
+APP_PID=
+stop_app() {
+  if [ -n "$APP_PID" ]; then
+    kill "$APP_PID" 2>/dev/null || true
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+  fi
+}
+trap stop_app EXIT
+
+start_app() {
+  local virtual=$1
+  java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+    --server.port="$PORT" \
+    --spring.threads.virtual.enabled="$virtual" \
+    --server.tomcat.threads.max="$TOMCAT_THREADS" \
+    --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE" \
+    --spring.jpa.show-sql=false \
+    --auth.rate-limit.ip.burst=1000000 \
+    --auth.rate-limit.account.burst=1000000 \
+    > "$HERE/results/app-$virtual.log" 2>&1 &
+  APP_PID=$!
+  for _ in $(seq 1 120); do
+    # Any HTTP response means the server is up; health itself needs a token
+    if curl -s -o /dev/null "$BASE/actuator/health"; then
+      return
+    fi
+    sleep 1
+  done
+  echo "The app did not start, see results/app-$virtual.log" >&2
+  exit 1
+}
+
+json_field() {
+  python3 -c "import json, sys; print(json.load(sys.stdin)$1)"
+}
+
+# A fresh user with a few session requests, so the dashboard has rows to read
+seed() {
+  local email="bench-$(date +%s%N)@example.com"
+  curl -sf -X POST "$BASE/auth/signup" -H 'Content-Type: application/json' \
+    -d "{\"firstName\":\"Bench\",\"lastName\":\"Mentee\",\"email\":\"$email\",\"password\":\"bench-pw\",\"expertise\":\"-\",\"bio\":\"-\"}" > /dev/null
+  TOKEN=$(curl -sf -X POST "$BASE/auth/signin" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$email\",\"password\":\"bench-pw\"}" | json_field '["token"]')
+  local mentor
+  mentor=$(curl -sf "$BASE/mentors" -H "Authorization: Bearer $TOKEN" | json_field '[0]["id"]' 2> /dev/null || true)
+  if [ -n "$mentor" ]; then
+    for i in 1 2 3; do
+      curl -s -X POST "$BASE/sessions" -H "Authorization: Bearer $TOKEN" -H 'Content-Type: application/json' \
+        -d "{\"mentorId\":$mentor,\"questions\":\"benchmark $i\"}" > /dev/null
+    done
+  fi
+}
+
+for mode in platform virtual; do
+  virtual=false
+  [ "$mode" = virtual ] && virtual=true
+  echo "== $mode threads"
+  start_app "$virtual"
+  seed
+  for clients in $CLIENTS; do
+    echo "-- $clients clients"
+    output=$(java "$HERE/LoadTest.java" "$BASE" "$TOKEN" "$clients" "$WARMUP" "$DURATION" "${PATHS[@]}")
+    echo "$output" | grep -v '^csv,'
+    echo "$output" | awk -v mode="$mode" -F, '/^csv,/ { sub(/^csv,/, ""); print mode "," $0 }' >> "$RESULTS"
+  done
+  pinned=$(grep -c "Virtual thread pinned" "$HERE/results/app-$virtual.log" || true)
+  echo "pinned virtual thread reports: $pinned"
+  stop_app
+done
+
+echo
+column -s, -t < "$RESULTS"
+echo "Saved to $RESULTS"
@@ -2,8 +2,10 @@ package free_mentor.FreeMentors;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FreeMentorsApplication {
 
 	public static void main(String[] args) {
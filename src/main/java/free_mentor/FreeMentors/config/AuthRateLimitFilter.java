@@ -0,0 +1,52 @@
+/*
+Group 18
+ */
+
+
+package free_mentor.FreeMentors.config;
+import free_mentor.FreeMentors.service.AuthRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/*
+ * Rejects /auth/* requests from a client IP over its limit with 429 and Retry-After,
+ * before the body is parsed or any hashing or database work is done. Behind a trusted proxy the
+ * remote address is the forwarded client address (server.forward-headers-strategy).
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    private final AuthRateLimiter authRateLimiter;
+
+    public AuthRateLimitFilter(AuthRateLimiter authRateLimiter) {
+        this.authRateLimiter = authRateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long retryAfter = authRateLimiter.checkClient(request.getRemoteAddr());
+        if (retryAfter > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests, please retry later\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        return !request.getRequestURI().startsWith("/auth/");
+    }
+}
@@ -4,13 +4,20 @@ Group 18
 
 
 package free_mentor.FreeMentors.config;
+import free_mentor.FreeMentors.dto.JwtPrincipal;
+import free_mentor.FreeMentors.entity.Role;
+import free_mentor.FreeMentors.service.TokenRevocationService;
 import free_mentor.FreeMentors.utils.JwtUtil;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -18,15 +25,26 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserCache userCache;
+    private final TokenRevocationService tokenRevocationService;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    // "stateless" trusts the verified claims; "lookup" loads fresh UserDetails through the cache
+    private final boolean statelessMode;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, UserCache userCache,
+                                   TokenRevocationService tokenRevocationService,
+                                   @Value("${jwt.authentication.mode:stateless}") String authenticationMode) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.userCache = userCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessMode = !"lookup".equalsIgnoreCase(authenticationMode);
     }
 
     @Override
@@ -34,7 +52,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String email;
+        final JwtPrincipal principal;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -42,30 +60,80 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        email = jwtUtil.extractEmail(jwt);
+        try {
+            // Signature and expiry are verified here, once per request
+            principal = jwtUtil.parseToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Invalid or expired token: continue unauthenticated and let Spring Security reject it
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Refresh tokens are only valid at /auth/refresh, and revoked tokens nowhere
+        if (!JwtUtil.ACCESS_TOKEN.equals(principal.getTokenType()) || tokenRevocationService.isRevoked(principal)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // A token without a subject or a known role is invalid: continue unauthenticated so it gets a 401
+        if (principal.getEmail() == null || !isKnownRole(principal.getRole())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        // Share the parsed claims with controllers so they do not parse the token again
+        request.setAttribute(JwtPrincipal.REQUEST_ATTRIBUTE, principal);
 
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
-                // Use UsernamePasswordAuthenticationToken instead of JwtAuthenticationToken
-                var authToken = new UsernamePasswordAuthenticationToken(
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Use UsernamePasswordAuthenticationToken instead of JwtAuthenticationToken
+            UsernamePasswordAuthenticationToken authToken;
+            if (statelessMode) {
+                // The signed claims already carry the role, so no database round trip is needed
+                authToken = new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole()))
+                );
+            } else {
+                UserDetails userDetails = loadUserDetails(principal.getEmail());
+                authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, // principal
                         null,        // credentials
                         userDetails.getAuthorities() // roles/authorities
                 );
-
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails loadUserDetails(String email) {
+        UserDetails userDetails = userCache.getUserFromCache(email);
+        if (userDetails == null) {
+            userDetails = userDetailsService.loadUserByUsername(email);
+            userCache.putUserInCache(userDetails);
+        }
+        return userDetails;
+    }
+
+    private static boolean isKnownRole(String role) {
+        if (role == null) {
+            return false;
+        }
+        for (Role known : Role.values()) {
+            if (known.name().equals(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
-        return path.equals("/auth/signup") || path.equals("/auth/signin");
+        return path.equals("/auth/signup") || path.equals("/auth/signin") || path.equals("/auth/refresh");
     }
 }
@@ -0,0 +1,145 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.controller;
+
+import free_mentor.FreeMentors.dto.JwtPrincipal;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.service.SessionExportService;
+import free_mentor.FreeMentors.service.SessionProjectionService;
+import free_mentor.FreeMentors.service.SessionStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    @Autowired
+    private SessionExportService sessionExportService;
+
+    @Autowired
+    private SessionProjectionService sessionProjectionService;
+
+    @Autowired
+    private SessionStatsService sessionStatsService;
+
+    /*
+     Export mentorship sessions for reporting (admins only), as NDJSON (default) or CSV.
+     Optional filters: status, and an inclusive id range fromId..toId. Rows are streamed as
+     they are read, so the export can be arbitrarily large. Archived sessions are included
+     with history=true.
+     */
+    @GetMapping("/sessions/export")
+    public ResponseEntity<StreamingResponseBody> exportSessions(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long fromId,
+            @RequestParam(required = false) Long toId,
+            @RequestParam(defaultValue = "false") boolean history) {
+
+        if (!principal.hasRole("ADMIN")) {
+            throw new AccessDeniedException("Only admins can export sessions");
+        }
+
+        SessionExportService.Format exportFormat =
+                parseEnum(SessionExportService.Format.class, format, "Invalid format. Use 'ndjson' or 'csv'.");
+        SessionStatus sessionStatus = status == null ? null : parseEnum(SessionStatus.class, status, "Invalid session status");
+        long from = fromId == null ? 0L : fromId;
+        long to = toId == null ? Long.MAX_VALUE : toId;
+        if (from > to) {
+            throw new IllegalArgumentException("fromId must not be greater than toId");
+        }
+
+        // Runs on an async thread after this method returns; the export opens its own read-only transaction
+        StreamingResponseBody body = out -> sessionExportService.export(out, exportFormat, sessionStatus, from, to, history);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"sessions." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    /*
+     Live platform-wide session counts by status and reviewed sessions (admins only).
+     With ?mentorId= the counts of that mentor are returned as well.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @RequestParam(required = false) Long mentorId) {
+
+        if (!principal.hasRole("ADMIN")) {
+            throw new AccessDeniedException("Only admins can view platform stats");
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("platform", sessionStatsService.getPlatformCounts());
+        if (mentorId != null) {
+            data.put("mentor", sessionStatsService.getMentorCounts(mentorId));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.OK.value());
+        response.put("data", data);
+        return ResponseEntity.ok(response);
+    }
+
+    /*
+     Progress of the session event log projection: checkpoint, log head and lag (admins only).
+     */
+    @GetMapping("/projections")
+    public ResponseEntity<Map<String, Object>> getProjectionStatus(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal) {
+
+        if (!principal.hasRole("ADMIN")) {
+            throw new AccessDeniedException("Only admins can view projections");
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.OK.value());
+        response.put("data", sessionProjectionService.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
+    /*
+     Replay the session event log into the read models from log id "from" (admins only).
+     from=0 rebuilds the read models from scratch.
+     */
+    @PostMapping("/projections/replay")
+    public ResponseEntity<Map<String, Object>> replayProjections(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @RequestParam(defaultValue = "0") long from) {
+
+        if (!principal.hasRole("ADMIN")) {
+            throw new AccessDeniedException("Only admins can replay projections");
+        }
+
+        sessionProjectionService.replay(from);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.OK.value());
+        response.put("data", sessionProjectionService.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String message) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
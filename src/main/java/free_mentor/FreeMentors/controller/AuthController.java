@@ -5,12 +5,18 @@ Group 18
 
 package free_mentor.FreeMentors.controller;
 
+import free_mentor.FreeMentors.dto.JwtPrincipal;
 import free_mentor.FreeMentors.dto.LoginRequest;
 import free_mentor.FreeMentors.dto.SignupRequest;
 import free_mentor.FreeMentors.entity.User;
 import free_mentor.FreeMentors.exception.AuthenticationException;
+import free_mentor.FreeMentors.exception.ServiceOverloadedException;
+import free_mentor.FreeMentors.exception.TooManyRequestsException;
+import free_mentor.FreeMentors.service.AuthRateLimiter;
+import free_mentor.FreeMentors.service.TokenRevocationService;
 import free_mentor.FreeMentors.service.UserServiceImpl;
 import free_mentor.FreeMentors.utils.JwtUtil;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -30,8 +36,15 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
     @PostMapping("/signup")
     public ResponseEntity<Map<String, Object>> signup(@Valid @RequestBody SignupRequest request) {
+        authRateLimiter.checkAccount(request.getEmail());
         Map<String, Object> response = new HashMap<>();
 
         try {
@@ -50,24 +63,88 @@ public class AuthController {
 
     @PostMapping("/signin")
     public ResponseEntity<Map<String, Object>> signin(@Valid @RequestBody LoginRequest loginRequest) {
+        // Throttle per account before any BCrypt or database work
+        authRateLimiter.checkAccount(loginRequest.getEmail());
         Map<String, Object> response = new HashMap<>();
         try {
             User user = userService.authenticateUser(loginRequest);
 
-            // Generate token including userId
-            String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
-
             response.put("message", "User successfully logged in");
-            response.put("token", token);
+            putTokens(response, user);
             response.put("userId", user.getId());
             //response.put("role", user.getRole().name());
             return ResponseEntity.ok(response);
         } catch (AuthenticationException e) {
             response.put("error", "Invalid email or password");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        } catch (ServiceOverloadedException | TooManyRequestsException e) {
+            // Let GlobalExceptionHandler answer with Retry-After: 503 when overloaded, 429 when throttled
+            throw e;
         } catch (Exception e) {
             response.put("error", "An unexpected error occurred");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    /*
+     Exchange a refresh token for a new access/refresh token pair.
+     The presented refresh token is revoked, so each one can be used only once.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh(@RequestBody Map<String, String> request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            JwtPrincipal refreshToken = jwtUtil.parseToken(request.get("refreshToken"));
+            if (!JwtUtil.REFRESH_TOKEN.equals(refreshToken.getTokenType())
+                    || tokenRevocationService.isRevoked(refreshToken)) {
+                throw new AuthenticationException("Invalid refresh token");
+            }
+
+            // Reload the user so role changes since sign-in are reflected in the new token
+            User user = userService.findByEmail(refreshToken.getEmail());
+            // Only the request whose revocation is recorded first gets a new pair
+            if (!tokenRevocationService.revokeOnce(refreshToken)) {
+                throw new AuthenticationException("Invalid refresh token");
+            }
+
+            response.put("message", "Token successfully refreshed");
+            putTokens(response, user);
+            return ResponseEntity.ok(response);
+        } catch (JwtException | IllegalArgumentException | AuthenticationException e) {
+            response.put("error", "Invalid refresh token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+    }
+
+    /*
+     Revoke the current access token and, if supplied, the caller's refresh token.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @RequestBody(required = false) Map<String, String> request) {
+        Map<String, Object> response = new HashMap<>();
+        tokenRevocationService.revoke(principal);
+
+        if (request != null && request.get("refreshToken") != null) {
+            try {
+                JwtPrincipal refreshToken = jwtUtil.parseToken(request.get("refreshToken"));
+                if (principal.getUserId().equals(refreshToken.getUserId())) {
+                    tokenRevocationService.revoke(refreshToken);
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // An invalid or expired refresh token is unusable anyway
+            }
+        }
+
+        response.put("message", "User successfully logged out");
+        return ResponseEntity.ok(response);
+    }
+
+    private void putTokens(Map<String, Object> response, User user) {
+        // Generate tokens including userId
+        response.put("token", jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name()));
+        response.put("refreshToken", jwtUtil.generateRefreshToken(user.getId(), user.getEmail(), user.getRole().name()));
+        response.put("expiresIn", jwtUtil.getAccessTokenTtlSeconds());
+    }
 }
@@ -5,13 +5,24 @@ Group 18
 
 package free_mentor.FreeMentors.controller;
 
+import free_mentor.FreeMentors.dto.MentorCard;
+import free_mentor.FreeMentors.dto.MentorRatingSummary;
+import free_mentor.FreeMentors.dto.MentorSearchHit;
 import free_mentor.FreeMentors.entity.User;
 import free_mentor.FreeMentors.entity.Role;
+import free_mentor.FreeMentors.event.MentorChangedEvent;
 import free_mentor.FreeMentors.exception.UserAlreadyMentorException;
 import free_mentor.FreeMentors.repository.UserRepository;
+import free_mentor.FreeMentors.service.MentorDirectoryService;
+import free_mentor.FreeMentors.service.MentorRatingService;
+import free_mentor.FreeMentors.service.MentorSearchService;
+import free_mentor.FreeMentors.utils.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -23,9 +34,32 @@ import java.util.Optional;
 @RequestMapping("/mentors")
 public class MentorController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MentorDirectoryService mentorDirectoryService;
+
+    @Autowired
+    private MentorSearchService mentorSearchService;
+
+    @Autowired
+    private MentorRatingService mentorRatingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${mentors.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${mentors.page.max-size:100}")
+    private int maxPageSize;
+
     // Promote a user to a mentor (Admin only)
     @PatchMapping("/{userId}/promote")
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -40,25 +74,95 @@ public class MentorController {
         user.setRole(Role.MENTOR);
         userRepository.save(user);
 
+        // Drop the cached authorities so the new role applies on the next request
+        userCache.removeUserFromCache(user.getEmail());
+        eventPublisher.publishEvent(new MentorChangedEvent(user.getId()));
+
         Map<String, String> response = new HashMap<>();
         response.put("message", "User account changed to mentor");
         return ResponseEntity.ok(response);
     }
 
+    /*
+     List mentors one keyset page at a time, sorted by "id" (default) or "name" (last name).
+     The cursor for the next page is returned in the X-Next-Cursor header when more mentors exist.
+     */
     @GetMapping
-    public ResponseEntity<List<User>> getAllMentors() {
-        List<User> mentors = userRepository.findAllMentors();
+    public ResponseEntity<List<MentorCard>> getAllMentors(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "id") String sort) {
+        int pageSize = Math.min(limit == null ? defaultPageSize : Math.max(1, limit), maxPageSize);
+        // Fetch one extra row to know whether another page exists
+        int fetchSize = pageSize + 1;
+
+        List<MentorCard> mentors;
+        boolean byName = "name".equalsIgnoreCase(sort);
+        if (byName) {
+            String[] position = after == null ? new String[]{"", "0"} : CursorCodec.decode(after, 2);
+            mentors = mentorDirectoryService.findPageByLastName(position[0], parseId(position[1]), fetchSize);
+        } else if ("id".equalsIgnoreCase(sort)) {
+            mentors = mentorDirectoryService.findPageById(after == null ? 0L : CursorCodec.decodeId(after), fetchSize);
+        } else {
+            throw new IllegalArgumentException("Invalid sort. Use 'id' or 'name'.");
+        }
+
         if (mentors.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(mentors);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (mentors.size() > pageSize) {
+            mentors = mentors.subList(0, pageSize);
+            MentorCard last = mentors.get(pageSize - 1);
+            builder.header(NEXT_CURSOR_HEADER, byName
+                    ? CursorCodec.encode(last.getLastName(), last.getId())
+                    : CursorCodec.encode(last.getId()));
+        }
+        return builder.body(mentors);
+    }
+
+    /*
+     Search mentors by expertise, occupation and bio, best matches first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<MentorSearchHit>> searchMentors(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = Math.min(limit == null ? defaultPageSize : Math.max(1, limit), maxPageSize);
+        List<MentorSearchHit> hits = mentorSearchService.search(query, pageSize);
+        if (hits.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(hits);
+    }
+
+    /*
+     Top-rated mentors by average review score, served from the in-memory leaderboard.
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<MentorRatingSummary>> getTopMentors(@RequestParam(required = false) Integer limit) {
+        int pageSize = Math.min(limit == null ? defaultPageSize : Math.max(1, limit), maxPageSize);
+        List<MentorRatingSummary> top = mentorRatingService.getTopMentors(pageSize);
+        if (top.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(top);
     }
 
     // Get a specific mentor by ID
     @GetMapping("/{mentorId}")
-    public ResponseEntity<User> getMentorById(@PathVariable Long mentorId) {
-        Optional<User> mentor = userRepository.findMentorById(mentorId);
+    public ResponseEntity<MentorCard> getMentorById(@PathVariable Long mentorId) {
+        Optional<MentorCard> mentor = mentorDirectoryService.findMentor(mentorId);
         return mentor.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
 }
@@ -4,47 +4,113 @@ Group 18
 
 package free_mentor.FreeMentors.controller;
 
+import free_mentor.FreeMentors.dto.JwtPrincipal;
+import free_mentor.FreeMentors.dto.MentorMatch;
 import free_mentor.FreeMentors.dto.ReviewResponseDTO;
+import free_mentor.FreeMentors.dto.SessionRequestOutcome;
+import free_mentor.FreeMentors.dto.SessionUpdateResult;
+import free_mentor.FreeMentors.dto.SessionView;
+import free_mentor.FreeMentors.dto.WaitlistView;
 import free_mentor.FreeMentors.entity.MentorshipSession;
+import free_mentor.FreeMentors.entity.SessionEventLogEntry;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.service.IdempotencyService;
+import free_mentor.FreeMentors.service.MentorMatchingService;
 import free_mentor.FreeMentors.service.MentorshipSessionService;
-import free_mentor.FreeMentors.utils.JwtUtil;
+import free_mentor.FreeMentors.service.SessionEventBroadcaster;
+import free_mentor.FreeMentors.service.SessionEventLogService;
+import free_mentor.FreeMentors.service.SessionProjectionService;
+import free_mentor.FreeMentors.service.SessionStatsService;
+import free_mentor.FreeMentors.utils.CursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/sessions")
 @RequiredArgsConstructor
 public class MentorshipSessionController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final MentorshipSessionService sessionService;
-    private final JwtUtil jwtUtil;
+    private final MentorMatchingService matchingService;
+    private final SessionEventBroadcaster sessionEventBroadcaster;
+    private final IdempotencyService idempotencyService;
+    private final SessionEventLogService sessionEventLogService;
+    private final SessionProjectionService sessionProjectionService;
+    private final SessionStatsService sessionStatsService;
+
+    @Value("${sessions.bulk.max-size:500}")
+    private int maxBulkSize;
+
+    @Value("${sessions.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${sessions.page.max-size:200}")
+    private int maxPageSize;
+
+    // Counting is an extra query per page; deployments that do not show totals can turn it off
+    @Value("${sessions.page.include-total-count:true}")
+    private boolean includeTotalCount;
 
     /*
-      Request a mentorship session.
+      Request a mentorship session. Retries that send the same Idempotency-Key get the first response back.
      */
     @PostMapping
     public ResponseEntity<Map<String, Object>> requestSession(
-            @RequestHeader("Authorization") String authHeader,
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, Object> request) {
+        if (idempotencyKey == null) {
+            return createSession(principal, request);
+        }
+        return idempotencyService.execute(principal.getUserId(), "POST /sessions", idempotencyKey, request,
+                () -> createSession(principal, request));
+    }
 
+    private ResponseEntity<Map<String, Object>> createSession(JwtPrincipal principal, Map<String, Object> request) {
         Map<String, Object> response = new HashMap<>();
         try {
-            validateToken(authHeader);
-            String token = authHeader.substring(7);
-            Long menteeId = jwtUtil.extractUserId(token);
+            Long menteeId = principal.getUserId();
 
             Long mentorId = ((Number) request.get("mentorId")).longValue();
             String questions = (String) request.get("questions");
 
-            MentorshipSession session = sessionService.createSession(menteeId, mentorId, questions);
+            SessionRequestOutcome outcome = sessionService.createSession(menteeId, mentorId, questions);
+
+            if (outcome.isWaitlisted()) {
+                // The mentor is at capacity: the request is queued and becomes a session when a slot frees up
+                WaitlistView entry = outcome.getWaitlisted();
+                Map<String, Object> data = new HashMap<>();
+                data.put("waitlistId", entry.getWaitlistId());
+                data.put("mentorId", entry.getMentorId());
+                data.put("menteeId", entry.getMenteeId());
+                data.put("questions", entry.getQuestions());
+                data.put("position", entry.getPosition());
+                data.put("status", "WAITLISTED");
+
+                response.put("status", HttpStatus.ACCEPTED.value());
+                response.put("data", data);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            }
 
+            MentorshipSession session = outcome.getSession();
             response.put("status", HttpStatus.CREATED.value());
             Map<String, Object> data = Map.of(
                     "sessionId", session.getId(),
@@ -62,14 +128,84 @@ public class MentorshipSessionController {
         }
     }
 
+    /*
+      Suggest the best-fit mentors for a mentee's questions before requesting a session.
+     */
+    @PostMapping("/match")
+    public ResponseEntity<Map<String, Object>> matchMentors(@RequestBody Map<String, Object> request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            String questions = (String) request.get("questions");
+            if (questions == null || questions.isBlank()) {
+                throw new IllegalArgumentException("Questions are required");
+            }
+            int limit = request.get("limit") == null ? 5 : ((Number) request.get("limit")).intValue();
+            if (limit < 1 || limit > 50) {
+                throw new IllegalArgumentException("Invalid limit. It must be between 1 and 50.");
+            }
+
+            List<MentorMatch> matches = matchingService.match(questions, limit);
+
+            response.put("status", HttpStatus.OK.value());
+            response.put("data", matches);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return handleException(response, e, HttpStatus.BAD_REQUEST);
+        }
+    }
+
     /*
      Accept a mentorship session (mentors only).
      */
     @PatchMapping("/{sessionId}/accept")
     public ResponseEntity<Map<String, Object>> acceptSession(
-            @RequestHeader("Authorization") String authHeader,
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @PathVariable Long sessionId) {
+        return handleSessionUpdate(principal, sessionId, "APPROVED");
+    }
+
+    /*
+     Mark an approved mentorship session as completed (mentors only), freeing a slot for waitlisted mentees.
+     */
+    @PatchMapping("/{sessionId}/complete")
+    public ResponseEntity<Map<String, Object>> completeSession(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
             @PathVariable Long sessionId) {
-        return handleSessionUpdate(authHeader, sessionId, "APPROVED");
+        return handleSessionUpdate(principal, sessionId, "COMPLETED");
+    }
+
+    /*
+     The authenticated mentee's waitlisted requests and their queue positions.
+     */
+    @GetMapping("/waitlist")
+    public ResponseEntity<Map<String, Object>> getWaitlist(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("status", HttpStatus.OK.value());
+            response.put("data", sessionService.getWaitlist(principal.getUserId()));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return handleException(response, e, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /*
+     Withdraw a waitlisted request.
+     */
+    @DeleteMapping("/waitlist/{waitlistId}")
+    public ResponseEntity<Map<String, Object>> leaveWaitlist(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @PathVariable Long waitlistId) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            sessionService.leaveWaitlist(waitlistId, principal.getUserId());
+            response.put("status", HttpStatus.OK.value());
+            response.put("message", "Request removed from the waitlist");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return handleException(response, e, HttpStatus.BAD_REQUEST);
+        }
     }
 
     /*
@@ -77,53 +213,195 @@ public class MentorshipSessionController {
      */
     @PatchMapping("/{sessionId}/reject")
     public ResponseEntity<Map<String, Object>> rejectSession(
-            @RequestHeader("Authorization") String authHeader,
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
             @PathVariable Long sessionId) {
-        return handleSessionUpdate(authHeader, sessionId, "REJECTED");
+        return handleSessionUpdate(principal, sessionId, "REJECTED");
     }
 
     /*
-     Get all sessions for the authenticated user (mentor or mentee).
+     Move many sessions to one status at once (mentors only), e.g.
+     {"sessionIds": [1, 2, 3], "status": "APPROVED"}. Each ID gets its own result.
+     */
+    @PatchMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> bulkUpdateSessions(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @RequestBody Map<String, Object> request) {
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            if (!principal.hasRole("MENTOR")) {
+                throw new IllegalArgumentException("Invalid user role. Only mentors can perform this action.");
+            }
+
+            if (!(request.get("sessionIds") instanceof List<?> rawIds) || rawIds.isEmpty()) {
+                throw new IllegalArgumentException("sessionIds must be a non-empty list");
+            }
+            if (rawIds.size() > maxBulkSize) {
+                throw new IllegalArgumentException("At most " + maxBulkSize + " sessions can be updated at once");
+            }
+            List<Long> sessionIds = rawIds.stream()
+                    .map(id -> {
+                        if (!(id instanceof Number number)) {
+                            throw new IllegalArgumentException("sessionIds must be numbers");
+                        }
+                        return number.longValue();
+                    })
+                    .toList();
+
+            List<SessionUpdateResult> results =
+                    sessionService.updateSessionStatuses(principal.getUserId(), sessionIds, (String) request.get("status"));
+
+            response.put("status", HttpStatus.OK.value());
+            response.put("updated", results.stream().filter(SessionUpdateResult::isUpdated).count());
+            response.put("data", results);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return handleException(response, e, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /*
+     Stream the authenticated user's session changes as Server-Sent Events, instead of polling
+     /sessions/all. Reconnecting clients send Last-Event-ID to receive what they missed; a
+     "resync" event means the gap is too old and the session list should be reloaded.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSessions(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return sessionEventBroadcaster.subscribe(principal.getUserId(), lastEventId);
+    }
+
+    /*
+     Get the authenticated user's sessions (mentor or mentee), one keyset page at a time.
+     Optional ?status= filters by session status. The cursor for the next page is returned in
+     the X-Next-Cursor header, and the total across all pages in X-Total-Count when enabled.
+     Archived (finished, older) sessions are included only with ?history=true.
      */
     @GetMapping("/all")
     public ResponseEntity<Map<String, Object>> getSessions(
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean history) {
 
         Map<String, Object> response = new HashMap<>();
         try {
-            validateToken(authHeader);
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
-            String userRole = jwtUtil.extractUserRole(token);
-
-            List<MentorshipSession> sessions = switch (userRole.toUpperCase()) {
-                case "MENTOR" -> sessionService.getSessionsByMentorId(userId);
-                case "MENTEE" -> sessionService.getSessionsByMenteeId(userId);
+            Long userId = principal.getUserId();
+            String userRole = principal.getRole();
+
+            SessionStatus sessionStatus = parseStatus(status);
+            int pageSize = Math.min(limit == null ? defaultPageSize : Math.max(1, limit), maxPageSize);
+            long afterId = after == null ? 0L : CursorCodec.decodeId(after);
+            // Fetch one extra row to know whether another page exists
+            int fetchSize = pageSize + 1;
+
+            boolean asMentor = switch (userRole.toUpperCase()) {
+                case "MENTOR" -> true;
+                case "MENTEE" -> false;
                 default -> throw new IllegalArgumentException("Invalid user role");
             };
+            List<SessionView> sessions = asMentor
+                    ? sessionService.getSessionsByMentorId(userId, sessionStatus, afterId, fetchSize, history)
+                    : sessionService.getSessionsByMenteeId(userId, sessionStatus, afterId, fetchSize, history);
+
+            HttpHeaders headers = new HttpHeaders();
+            if (includeTotalCount) {
+                long total = asMentor
+                        ? sessionService.countSessionsByMentorId(userId, sessionStatus, history)
+                        : sessionService.countSessionsByMenteeId(userId, sessionStatus, history);
+                headers.set(TOTAL_COUNT_HEADER, Long.toString(total));
+            }
 
             if (sessions.isEmpty()) {
                 response.put("status", HttpStatus.OK.value());
                 response.put("data", "No sessions found for the user.");
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().headers(headers).body(response);
             }
 
-            List<Map<String, Object>> sessionData = sessions.stream()
-                    .map(session -> {
-                        Map<String, Object> sessionMap = new HashMap<>();
-                        sessionMap.put("sessionId", session.getId());
-                        sessionMap.put("mentorId", session.getMentor().getId());
-                        sessionMap.put("menteeId", session.getMentee().getId());
-                        sessionMap.put("questions", session.getQuestions());
-                        sessionMap.put("menteeEmail", session.getMenteeEmail());
-                        sessionMap.put("status", session.getStatus().toString());
-                        return sessionMap;
-                    })
-                    .collect(Collectors.toList());
+            if (sessions.size() > pageSize) {
+                sessions = sessions.subList(0, pageSize);
+                headers.set(NEXT_CURSOR_HEADER, CursorCodec.encode(sessions.get(pageSize - 1).getSessionId()));
+            }
+
+            response.put("status", HttpStatus.OK.value());
+            response.put("data", sessions);
+
+            return ResponseEntity.ok().headers(headers).body(response);
+        } catch (Exception e) {
+            return handleException(response, e, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /*
+     Dashboard for the authenticated user, served from the event log projections: the most recent
+     sessions, the user's sessions as a mentee counted by status and, for mentors, their session
+     counts. Trails writes by the reported projection lag.
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<Map<String, Object>> getDashboard(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @RequestParam(required = false) Integer limit) {
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Long userId = principal.getUserId();
+            boolean asMentor = principal.hasRole("MENTOR");
+            int size = Math.min(limit == null ? defaultPageSize : Math.max(1, limit), maxPageSize);
+
+            Map<String, Object> dashboard = new HashMap<>();
+            dashboard.put("recentSessions", sessionProjectionService.getRecentSessions(userId, asMentor, size));
+            dashboard.put("menteeSessions", sessionProjectionService.getMenteeCounts(userId));
+            if (asMentor) {
+                dashboard.put("mentorSessions", sessionProjectionService.getMentorStats(userId));
+            }
+            dashboard.put("projectionLag", sessionProjectionService.getLag());
+
+            response.put("status", HttpStatus.OK.value());
+            response.put("data", dashboard);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return handleException(response, e, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /*
+     Live counts of the authenticated mentor's sessions by status, and of reviewed sessions.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getSessionStats(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal) {
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            if (!principal.hasRole("MENTOR")) {
+                throw new IllegalArgumentException("Invalid user role. Only mentors can perform this action.");
+            }
 
             response.put("status", HttpStatus.OK.value());
-            response.put("data", sessionData);
+            response.put("data", sessionStatsService.getMentorCounts(principal.getUserId()));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return handleException(response, e, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /*
+     Every recorded change to a session, oldest first (its participants and admins only).
+     */
+    @GetMapping("/{sessionId}/history")
+    public ResponseEntity<Map<String, Object>> getSessionHistory(
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @PathVariable Long sessionId) {
 
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<SessionEventLogEntry> history =
+                    sessionEventLogService.getHistory(sessionId, principal.getUserId(), principal.hasRole("ADMIN"));
+            response.put("status", HttpStatus.OK.value());
+            response.put("data", history);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return handleException(response, e, HttpStatus.BAD_REQUEST);
@@ -131,19 +409,26 @@ public class MentorshipSessionController {
     }
 
     /**
-     * Review a mentorship session.
+     * Review a mentorship session. Supports Idempotency-Key like requestSession.
      */
     @PostMapping("/{sessionId}/review")
     public ResponseEntity<Map<String, Object>> reviewMentor(
-            @RequestHeader("Authorization") String authHeader,
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @PathVariable Long sessionId,
             @RequestBody Map<String, Object> request) {
+        if (idempotencyKey == null) {
+            return createReview(principal, sessionId, request);
+        }
+        return idempotencyService.execute(principal.getUserId(), "POST /sessions/" + sessionId + "/review",
+                idempotencyKey, request, () -> createReview(principal, sessionId, request));
+    }
 
+    private ResponseEntity<Map<String, Object>> createReview(JwtPrincipal principal, Long sessionId,
+                                                             Map<String, Object> request) {
         Map<String, Object> response = new HashMap<>();
         try {
-            validateToken(authHeader);
-            String token = authHeader.substring(7);
-            Long menteeId = jwtUtil.extractUserId(token);
+            Long menteeId = principal.getUserId();
 
             Integer score = (Integer) request.get("score");
             String remark = (String) request.get("remark");
@@ -177,14 +462,12 @@ public class MentorshipSessionController {
      */
     @DeleteMapping("/{sessionId}/review")
     public ResponseEntity<Map<String, Object>> deleteReview(
-            @RequestHeader("Authorization") String authHeader,
+            @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) JwtPrincipal principal,
             @PathVariable Long sessionId) {
 
         Map<String, Object> response = new HashMap<>();
         try {
-            validateToken(authHeader);
-            String token = authHeader.substring(7);
-            Long menteeId = jwtUtil.extractUserId(token);
+            Long menteeId = principal.getUserId();
 
             sessionService.deleteReview(sessionId, menteeId);
 
@@ -201,32 +484,20 @@ public class MentorshipSessionController {
      * Handle session updates (accept/reject) for mentors only.
      */
     private ResponseEntity<Map<String, Object>> handleSessionUpdate(
-            String authHeader, Long sessionId, String status) {
+            JwtPrincipal principal, Long sessionId, String status) {
 
         Map<String, Object> response = new HashMap<>();
         try {
-            validateToken(authHeader);
-            String token = authHeader.substring(7);
-            Long mentorId = jwtUtil.extractUserId(token);
-            String userRole = jwtUtil.extractUserRole(token);
+            Long mentorId = principal.getUserId();
 
-            if (!"MENTOR".equalsIgnoreCase(userRole)) {
+            if (!principal.hasRole("MENTOR")) {
                 throw new IllegalArgumentException("Invalid user role. Only mentors can perform this action.");
             }
 
-            MentorshipSession session = sessionService.updateSessionStatus(sessionId, mentorId, status);
-
-            Map<String, Object> data = Map.of(
-                    "sessionId", session.getId(),
-                    "mentorId", session.getMentor().getId(),
-                    "menteeId", session.getMentee().getId(),
-                    "questions", session.getQuestions(),
-                    "menteeEmail", session.getMenteeEmail(),
-                    "status", session.getStatus()
-            );
+            SessionView session = sessionService.updateSessionStatus(sessionId, mentorId, status);
 
             response.put("status", HttpStatus.OK.value());
-            response.put("data", data);
+            response.put("data", session);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -234,12 +505,14 @@ public class MentorshipSessionController {
         }
     }
 
-    /**
-     * Validate the Authorization header.
-     */
-    private void validateToken(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new IllegalArgumentException("Missing or invalid token");
+    private static SessionStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return SessionStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid session status");
         }
     }
 
@@ -248,9 +521,30 @@ public class MentorshipSessionController {
      */
     private ResponseEntity<Map<String, Object>> handleException(
             Map<String, Object> response, Exception e, HttpStatus status) {
+        if (isTransient(e)) {
+            // Lock timeouts, deadlocks and lost connections say nothing about the request: answer 503 so
+            // the client retries, and so an Idempotency-Key does not replay the failure
+            response.put("error", "The request could not be completed right now, please retry");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response);
+        }
         response.put("error", e.getMessage());
         return ResponseEntity.status(status).body(response);
     }
+
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
 
 
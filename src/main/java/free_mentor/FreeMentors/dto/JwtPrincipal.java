@@ -0,0 +1,35 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Date;
+
+/*
+ * Verified claims of the bearer token for the current request.
+ * Built once by JwtAuthenticationFilter and exposed as a request attribute,
+ * so controllers never parse the token a second time.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class JwtPrincipal {
+
+    public static final String REQUEST_ATTRIBUTE = "jwtPrincipal";
+
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final Date expiration;
+    private final String tokenId;
+    private final String tokenType;
+
+    public boolean hasRole(String expectedRole) {
+        return role != null && role.equalsIgnoreCase(expectedRole);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Public, immutable view of a mentor. Selected directly by JPQL constructor expressions,
+ * so the password hash, email and address are never loaded or serialized.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class MentorCard {
+    private final Long id;
+    private final String firstName;
+    private final String lastName;
+    private final String bio;
+    private final String occupation;
+    private final String expertise;
+}
@@ -0,0 +1,11 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+public interface MentorCount {
+    Long getMentorId();
+
+    Long getCount();
+}
@@ -0,0 +1,20 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class MentorMatch {
+    private final MentorCard mentor;
+    private final double score;         // final ranking score
+    private final double similarity;    // cosine similarity of questions and mentor profile
+    private final double averageScore;  // 0 when the mentor has no reviews yet
+    private final long pendingRequests;
+}
@@ -0,0 +1,19 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class MentorRatingSummary {
+    private final MentorCard mentor;
+    private final long reviewCount;
+    private final double averageScore;
+    private final long[] histogram; // counts of scores 1..5
+}
@@ -0,0 +1,16 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+/*
+ * Number of reviews with a given score for one mentor.
+ */
+public interface MentorScoreCount {
+    Long getMentorId();
+
+    Integer getScore();
+
+    Long getReviews();
+}
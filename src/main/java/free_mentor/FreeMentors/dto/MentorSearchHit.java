@@ -0,0 +1,17 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class MentorSearchHit {
+    private final MentorCard mentor;
+    private final double score;
+}
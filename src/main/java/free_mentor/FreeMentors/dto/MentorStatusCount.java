@@ -0,0 +1,20 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import free_mentor.FreeMentors.entity.SessionStatus;
+
+/*
+ * Number of one mentor's sessions in a status, and how many of them have a review.
+ */
+public interface MentorStatusCount {
+    Long getMentorId();
+
+    SessionStatus getStatus();
+
+    Long getSessions();
+
+    Long getReviews();
+}
@@ -0,0 +1,21 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * Session counts by status (approved includes accepted) and the number of reviewed sessions.
+ */
+@Getter
+@AllArgsConstructor
+public class SessionCounts {
+    private final long pending;
+    private final long approved;
+    private final long rejected;
+    private final long completed;
+    private final long reviews;
+}
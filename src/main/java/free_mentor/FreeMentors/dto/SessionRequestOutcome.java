@@ -0,0 +1,24 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import free_mentor.FreeMentors.entity.MentorshipSession;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * Result of a session request: either the created PENDING session, or, when the mentor is
+ * at capacity, the request's place on the mentor's waitlist.
+ */
+@Getter
+@AllArgsConstructor
+public class SessionRequestOutcome {
+    private final MentorshipSession session;
+    private final WaitlistView waitlisted;
+
+    public boolean isWaitlisted() {
+        return waitlisted != null;
+    }
+}
@@ -0,0 +1,16 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import free_mentor.FreeMentors.entity.SessionStatus;
+
+/*
+ * Number of sessions in one status.
+ */
+public interface SessionStatusCount {
+    SessionStatus getStatus();
+
+    Long getSessions();
+}
@@ -0,0 +1,24 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import free_mentor.FreeMentors.entity.SessionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Outcome of one session in a bulk status change: whether it moved, the status it is now in
+ * (null when the session does not exist or is not the caller's), and why it did not move.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SessionUpdateResult {
+    private final Long sessionId;
+    private final boolean updated;
+    private final SessionStatus status;
+    private final String error;
+}
@@ -0,0 +1,28 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import free_mentor.FreeMentors.entity.SessionStatus;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * The columns a session listing returns. Selected by JPQL constructor expressions that read the
+ * mentor and mentee foreign keys straight from the session row, so no users are joined or loaded.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class SessionView {
+    private final Long sessionId;
+    private final Long mentorId;
+    private final Long menteeId;
+    private final String questions;
+    private final String menteeEmail;
+    private final SessionStatus status;
+}
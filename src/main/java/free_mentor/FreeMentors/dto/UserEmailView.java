@@ -0,0 +1,14 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+/*
+ * Projection used to stream (id, email) pairs without loading full User entities.
+ */
+public interface UserEmailView {
+    Long getId();
+
+    String getEmail();
+}
@@ -0,0 +1,26 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/*
+ * A mentee's waitlisted request and its place in the mentor's queue (1 = next to be promoted).
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class WaitlistView {
+    private final Long waitlistId;
+    private final Long mentorId;
+    private final Long menteeId;
+    private final String questions;
+    private final Instant createdAt;
+    private final long position;
+}
@@ -0,0 +1,57 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/*
+ * A finished session moved out of mentorship_session by the archiver. Keeps the original id;
+ * archived sessions are read-only and only listed when history is asked for.
+ */
+@Entity
+@Table(name = "mentorship_session_archive", indexes = {
+        @Index(name = "idx_archive_mentor_status", columnList = "mentor_id, status, id"),
+        @Index(name = "idx_archive_mentee_status", columnList = "mentee_id, status, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedSession {
+
+    @Id
+    private Long id;
+
+    @Column(name = "mentor_id", nullable = false)
+    private Long mentorId;
+
+    @Column(name = "mentee_id", nullable = false)
+    private Long menteeId;
+
+    @Column(nullable = false)
+    private String questions;
+
+    @Column(nullable = false)
+    private String menteeEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32, columnDefinition = "varchar(32)")
+    private SessionStatus status;
+
+    private Integer score;
+
+    @Column(length = 500)
+    private String remark;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
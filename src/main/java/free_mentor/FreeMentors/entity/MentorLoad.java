@@ -0,0 +1,29 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/*
+ * Live counters of one mentor's workload: open sessions (pending or approved) and waitlisted
+ * requests. Changed only with guarded single-row UPDATEs, so limits hold across nodes without
+ * counting sessions on every request.
+ */
+@Entity
+@Table(name = "mentor_load")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MentorLoad {
+
+    @Id
+    private Long mentorId;
+
+    private int openSessions;
+    private int waitlisted;
+}
@@ -0,0 +1,41 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/*
+ * Running review aggregate of one mentor: count, sum and a histogram of the 1-5 scores.
+ * Maintained with atomic increments in the same transaction as the review itself.
+ */
+@Entity
+@Table(name = "mentor_ratings")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MentorRating {
+
+    @Id
+    private Long mentorId;
+
+    private long reviewCount;
+    private long scoreSum;
+    private long score1;
+    private long score2;
+    private long score3;
+    private long score4;
+    private long score5;
+
+    public double getAverageScore() {
+        return reviewCount == 0 ? 0 : (double) scoreSum / reviewCount;
+    }
+
+    public long[] getHistogram() {
+        return new long[]{score1, score2, score3, score4, score5};
+    }
+}
@@ -0,0 +1,32 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/*
+ * Per-mentor session counts by status, and the number of reviewed sessions, maintained by the
+ * event log projection.
+ */
+@Entity
+@Table(name = "mentor_session_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MentorSessionStats {
+
+    @Id
+    private Long mentorId;
+
+    private long pending;
+    private long approved;
+    private long accepted;
+    private long rejected;
+    private long completed;
+    private long reviewed;
+}
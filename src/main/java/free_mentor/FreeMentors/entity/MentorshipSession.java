@@ -9,23 +9,37 @@ import jakarta.persistence.*;
 import lombok.*;
 import free_mentor.FreeMentors.entity.SessionStatus;
 
+import java.time.Instant;
+
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = {
+        // Session listings filter by one participant and, optionally, the status
+        @Index(name = "idx_sessions_mentor_status", columnList = "mentor_id, status, id"),
+        @Index(name = "idx_sessions_mentee_status", columnList = "mentee_id, status, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sessions_pending_pair", columnNames = "pending_pair")
+})
 public class MentorshipSession {
 
+    public static String pendingPair(Long menteeId, Long mentorId) {
+        return menteeId + ":" + mentorId;
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // Lazy: most callers only need the id, which the proxy holds without a query
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "mentor_id", nullable = false)
     private User mentor;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "mentee_id", nullable = false)
     private User mentee;
 
@@ -44,4 +58,18 @@ public class MentorshipSession {
     @Column(length = 500, nullable = true)
     private String remark;
 
+    // "menteeId:mentorId" while PENDING, null afterwards. MySQL has no partial unique index, and
+    // NULLs do not collide, so this allows one pending request per mentee and mentor.
+    @Column(name = "pending_pair", length = 41)
+    private String pendingPair;
+
+    // Last status or review change; null for sessions written before it was recorded
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    // Optimistic lock; status transitions bump it in their conditional UPDATE as well
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
 }
@@ -0,0 +1,34 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/*
+ * Position of a resumable background job: how far a projection has read the session event log,
+ * or how far the archiver has scanned the sessions table. The row is locked while a batch is
+ * applied, so only one node runs the job at a time.
+ */
+@Entity
+@Table(name = "projection_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectionCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    // Id of the last log entry applied, or of the last session scanned
+    private long position;
+
+    private Instant updatedAt;
+}
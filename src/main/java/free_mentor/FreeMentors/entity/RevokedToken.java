@@ -0,0 +1,37 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/*
+ * Durable record of a revoked token id, so revocations survive restarts and reach every node.
+ * Only the 64-bit hash of the jti is stored; rows are deleted once the token would have expired anyway.
+ * The hash is unique, so the insert itself decides which of two concurrent revocations wins.
+ */
+@Entity
+@Table(name = "revoked_tokens",
+        indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_revoked_tokens_token_hash", columnNames = "tokenHash"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long tokenHash;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
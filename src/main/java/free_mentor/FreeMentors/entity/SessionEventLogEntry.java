@@ -0,0 +1,55 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.entity;
+
+import free_mentor.FreeMentors.event.SessionChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/*
+ * One change to a mentorship session, appended in the transaction that made it. Rows are never
+ * updated or deleted; the id gives the order in which projections apply them.
+ */
+@Entity
+@Table(name = "session_event_log", indexes = {
+        @Index(name = "idx_session_event_log_session", columnList = "session_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SessionEventLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain varchar rather than a MySQL ENUM, so new event types do not need a schema change
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32, columnDefinition = "varchar(32)")
+    private SessionChangedEvent.Type type;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Column(nullable = false)
+    private Long mentorId;
+
+    @Column(nullable = false)
+    private Long menteeId;
+
+    // The session's status after the change
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32, columnDefinition = "varchar(32)")
+    private SessionStatus status;
+
+    private Integer score;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,32 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/*
+ * A session event log id the projector moved past while it was not visible: its transaction had
+ * not committed yet, or rolled back and the id will never appear. Rechecked on every poll until
+ * the entry shows up or the gap expires.
+ */
+@Entity
+@Table(name = "session_projection_gap")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SessionProjectionGap {
+
+    // Id of the missing log entry; assigned, not generated
+    @Id
+    private Long entryId;
+
+    @Column(nullable = false)
+    private Instant skippedAt;
+}
@@ -0,0 +1,51 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/*
+ * A session as seen by the event log projection, listed per mentor and per mentee for dashboards.
+ * lastEventId is the last log entry applied to the row, so replaying the log is idempotent.
+ */
+@Entity
+@Table(name = "session_read_model", indexes = {
+        @Index(name = "idx_session_read_model_mentor", columnList = "mentor_id, session_id"),
+        @Index(name = "idx_session_read_model_mentee", columnList = "mentee_id, session_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SessionReadModel {
+
+    @Id
+    @Column(name = "session_id")
+    private Long sessionId;
+
+    @Column(name = "mentor_id", nullable = false)
+    private Long mentorId;
+
+    @Column(name = "mentee_id", nullable = false)
+    private Long menteeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32, columnDefinition = "varchar(32)")
+    private SessionStatus status;
+
+    private Integer score;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    private long lastEventId;
+}
@@ -4,10 +4,64 @@ Group 18
 
 package free_mentor.FreeMentors.entity;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum SessionStatus {
     PENDING,
     APPROVED,
     ACCEPTED,
     REJECTED,
-    COMPLETED
+    COMPLETED;
+
+    /*
+     * Allowed transitions. A mentor answers a pending request once; an approved session can
+     * then be completed. Rejected and completed sessions are final.
+     */
+    private static final Map<SessionStatus, Set<SessionStatus>> TARGETS = new EnumMap<>(SessionStatus.class);
+    private static final Map<SessionStatus, Set<SessionStatus>> SOURCES = new EnumMap<>(SessionStatus.class);
+
+    static {
+        TARGETS.put(PENDING, EnumSet.of(APPROVED, ACCEPTED, REJECTED));
+        TARGETS.put(APPROVED, EnumSet.of(COMPLETED));
+        TARGETS.put(ACCEPTED, EnumSet.of(COMPLETED));
+        TARGETS.put(REJECTED, EnumSet.noneOf(SessionStatus.class));
+        TARGETS.put(COMPLETED, EnumSet.noneOf(SessionStatus.class));
+
+        for (SessionStatus status : values()) {
+            SOURCES.put(status, EnumSet.noneOf(SessionStatus.class));
+        }
+        TARGETS.forEach((source, targets) -> targets.forEach(target -> SOURCES.get(target).add(source)));
+        TARGETS.replaceAll((status, set) -> Collections.unmodifiableSet(set));
+        SOURCES.replaceAll((status, set) -> Collections.unmodifiableSet(set));
+    }
+
+    /*
+     * Open sessions occupy one of the mentor's capacity slots until they are rejected or completed.
+     */
+    public boolean isOpen() {
+        return this == PENDING || this == APPROVED || this == ACCEPTED;
+    }
+
+    /*
+     * A mentee can review a session once the mentor has answered it, including after completion.
+     */
+    public boolean isReviewable() {
+        return this != PENDING;
+    }
+
+    public boolean canTransitionTo(SessionStatus target) {
+        return TARGETS.get(this).contains(target);
+    }
+
+    /*
+     * The statuses a session may be in for a move to this status to be allowed;
+     * used as the guard of the conditional UPDATE.
+     */
+    public Set<SessionStatus> allowedSources() {
+        return SOURCES.get(this);
+    }
 }
@@ -0,0 +1,49 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/*
+ * A session request waiting for a mentor who is at capacity. Entries are promoted to PENDING
+ * sessions in id (arrival) order as the mentor's sessions finish.
+ */
+@Entity
+@Table(name = "session_waitlist", indexes = {
+        @Index(name = "idx_waitlist_mentor_id", columnList = "mentor_id, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_waitlist_mentee_mentor", columnNames = {"mentee_id", "mentor_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SessionWaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mentor_id", nullable = false)
+    private User mentor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mentee_id", nullable = false)
+    private User mentee;
+
+    @Column(nullable = false)
+    private String questions;
+
+    @Column(nullable = false)
+    private String menteeEmail;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -24,7 +24,10 @@ import java.util.List;
 
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role_id", columnList = "role, id"),
+        @Index(name = "idx_users_role_last_name", columnList = "role, lastName, id")
+})
 @Data
 public class User {
 
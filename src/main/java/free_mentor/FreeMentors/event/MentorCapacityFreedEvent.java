@@ -0,0 +1,11 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.event;
+
+/*
+ * Published when some of a mentor's open sessions finish, so waitlisted requests can be promoted.
+ */
+public record MentorCapacityFreedEvent(Long mentorId) {
+}
@@ -0,0 +1,12 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.event;
+
+/*
+ * Published whenever a user becomes a mentor or a mentor's public profile changes,
+ * so in-memory mentor views can refresh exactly that entry.
+ */
+public record MentorChangedEvent(Long userId) {
+}
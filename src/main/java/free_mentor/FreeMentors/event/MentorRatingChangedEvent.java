@@ -0,0 +1,11 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.event;
+
+/*
+ * Published when a review on one of the mentor's sessions is added, changed or deleted.
+ */
+public record MentorRatingChangedEvent(Long mentorId) {
+}
@@ -0,0 +1,23 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.event;
+
+import free_mentor.FreeMentors.entity.SessionStatus;
+
+/*
+ * Published when a session is requested, changes status, or has its review added or removed.
+ * Both participants are notified, and the change is appended to the session event log.
+ * score is the review score after a review change, and null otherwise.
+ */
+public record SessionChangedEvent(Type type, Long sessionId, Long mentorId, Long menteeId, SessionStatus status,
+                                  Integer score) {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        REVIEWED,
+        REVIEW_DELETED
+    }
+}
@@ -0,0 +1,13 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.event;
+
+/*
+ * Changes to one mentor's session counts made by a transaction; applied to the live counters
+ * once it commits.
+ */
+public record SessionCountsChangedEvent(Long mentorId, long pending, long approved, long rejected,
+                                        long completed, long reviews) {
+}
@@ -0,0 +1,70 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.repository;
+
+import free_mentor.FreeMentors.dto.MentorStatusCount;
+import free_mentor.FreeMentors.dto.SessionView;
+import free_mentor.FreeMentors.entity.ArchivedSession;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/*
+ * Read side of mentorship_session_archive; rows are written by MentorshipSessionRepository.copyToArchive.
+ * The queries mirror the live listing queries so both tables yield the same SessionView pages.
+ */
+public interface ArchivedSessionRepository extends JpaRepository<ArchivedSession, Long> {
+
+    String ARCHIVED_VIEW = "SELECT new free_mentor.FreeMentors.dto.SessionView(a.id, a.mentorId, a.menteeId, " +
+            "a.questions, a.menteeEmail, a.status) FROM ArchivedSession a ";
+
+    @Query(ARCHIVED_VIEW + "WHERE a.mentorId = :mentorId AND a.id > :afterId ORDER BY a.id")
+    List<SessionView> findViewsByMentorId(@Param("mentorId") Long mentorId, @Param("afterId") long afterId, Limit limit);
+
+    @Query(ARCHIVED_VIEW + "WHERE a.mentorId = :mentorId AND a.status = :status AND a.id > :afterId ORDER BY a.id")
+    List<SessionView> findViewsByMentorIdAndStatus(@Param("mentorId") Long mentorId, @Param("status") SessionStatus status,
+                                                   @Param("afterId") long afterId, Limit limit);
+
+    @Query(ARCHIVED_VIEW + "WHERE a.menteeId = :menteeId AND a.id > :afterId ORDER BY a.id")
+    List<SessionView> findViewsByMenteeId(@Param("menteeId") Long menteeId, @Param("afterId") long afterId, Limit limit);
+
+    @Query(ARCHIVED_VIEW + "WHERE a.menteeId = :menteeId AND a.status = :status AND a.id > :afterId ORDER BY a.id")
+    List<SessionView> findViewsByMenteeIdAndStatus(@Param("menteeId") Long menteeId, @Param("status") SessionStatus status,
+                                                   @Param("afterId") long afterId, Limit limit);
+
+    long countByMentorId(Long mentorId);
+
+    long countByMentorIdAndStatus(Long mentorId, SessionStatus status);
+
+    long countByMenteeId(Long menteeId);
+
+    long countByMenteeIdAndStatus(Long menteeId, SessionStatus status);
+
+    @Query("SELECT a.mentorId AS mentorId, a.status AS status, COUNT(a) AS sessions, COUNT(a.score) AS reviews " +
+            "FROM ArchivedSession a GROUP BY a.mentorId, a.status")
+    List<MentorStatusCount> countByMentorAndStatus();
+
+    /*
+     * Export counterpart of MentorshipSessionRepository.streamForExport.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM ArchivedSession a WHERE (:status IS NULL OR a.status = :status) " +
+            "AND a.id >= :fromId AND a.id <= :toId ORDER BY a.id")
+    Stream<ArchivedSession> streamForExport(@Param("status") SessionStatus status,
+                                            @Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,67 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.repository;
+
+import free_mentor.FreeMentors.entity.MentorLoad;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface MentorLoadRepository extends JpaRepository<MentorLoad, Long> {
+
+    /*
+     * Creates the mentor's counter row if it does not exist yet.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO mentor_load (mentor_id, open_sessions, waitlisted) VALUES (:mentorId, 0, 0) " +
+            "ON DUPLICATE KEY UPDATE mentor_id = mentor_id", nativeQuery = true)
+    void ensureExists(@Param("mentorId") Long mentorId);
+
+    /*
+     * Takes one open-session slot if the mentor is below capacity. Returns 1 if taken, 0 if full
+     * (or the row does not exist).
+     */
+    @Modifying
+    @Query("UPDATE MentorLoad l SET l.openSessions = l.openSessions + 1 " +
+            "WHERE l.mentorId = :mentorId AND l.openSessions < :capacity")
+    int tryAcquire(@Param("mentorId") Long mentorId, @Param("capacity") int capacity);
+
+    @Modifying
+    @Query("UPDATE MentorLoad l SET l.openSessions = CASE WHEN l.openSessions > :count " +
+            "THEN l.openSessions - :count ELSE 0 END WHERE l.mentorId = :mentorId")
+    int release(@Param("mentorId") Long mentorId, @Param("count") int count);
+
+    /*
+     * Takes one waitlist place if the mentor's waitlist is below its limit.
+     */
+    @Modifying
+    @Query("UPDATE MentorLoad l SET l.waitlisted = l.waitlisted + 1 " +
+            "WHERE l.mentorId = :mentorId AND l.waitlisted < :limit")
+    int tryEnqueue(@Param("mentorId") Long mentorId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE MentorLoad l SET l.waitlisted = CASE WHEN l.waitlisted > 0 " +
+            "THEN l.waitlisted - 1 ELSE 0 END WHERE l.mentorId = :mentorId")
+    int dequeue(@Param("mentorId") Long mentorId);
+
+    /*
+     * Recomputes every counter from the sessions and waitlist tables, repairing any drift
+     * (crashes between statements, rows written before the counters existed).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO mentor_load (mentor_id, open_sessions, waitlisted) " +
+            "SELECT u.id, 0, 0 FROM users u WHERE u.role = 'MENTOR' " +
+            "ON DUPLICATE KEY UPDATE mentor_id = mentor_load.mentor_id", nativeQuery = true)
+    int seedMentors();
+
+    @Modifying
+    @Query(value = "UPDATE mentor_load SET " +
+            "open_sessions = (SELECT COUNT(*) FROM mentorship_session s WHERE s.mentor_id = mentor_load.mentor_id " +
+            "AND s.status IN ('PENDING', 'APPROVED', 'ACCEPTED')), " +
+            "waitlisted = (SELECT COUNT(*) FROM session_waitlist w WHERE w.mentor_id = mentor_load.mentor_id)",
+            nativeQuery = true)
+    int reconcile();
+}
@@ -0,0 +1,30 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.repository;
+
+import free_mentor.FreeMentors.entity.MentorRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface MentorRatingRepository extends JpaRepository<MentorRating, Long> {
+
+    /*
+     * Atomically applies a delta to a mentor's aggregate, creating the row on first use.
+     * Must run inside the transaction that changes the review.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO mentor_ratings (mentor_id, review_count, score_sum, score1, score2, score3, score4, score5) " +
+            "VALUES (:mentorId, :count, :sum, :s1, :s2, :s3, :s4, :s5) " +
+            "ON DUPLICATE KEY UPDATE review_count = review_count + VALUES(review_count), " +
+            "score_sum = score_sum + VALUES(score_sum), score1 = score1 + VALUES(score1), " +
+            "score2 = score2 + VALUES(score2), score3 = score3 + VALUES(score3), " +
+            "score4 = score4 + VALUES(score4), score5 = score5 + VALUES(score5)",
+            nativeQuery = true)
+    void applyDelta(@Param("mentorId") Long mentorId, @Param("count") long count, @Param("sum") long sum,
+                    @Param("s1") long s1, @Param("s2") long s2, @Param("s3") long s3,
+                    @Param("s4") long s4, @Param("s5") long s5);
+}
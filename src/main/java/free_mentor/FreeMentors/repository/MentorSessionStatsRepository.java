@@ -0,0 +1,32 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.repository;
+
+import free_mentor.FreeMentors.entity.MentorSessionStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface MentorSessionStatsRepository extends JpaRepository<MentorSessionStats, Long> {
+
+    /*
+     * Atomically applies a delta to a mentor's counts, creating the row on first use.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO mentor_session_stats (mentor_id, pending, approved, accepted, rejected, completed, reviewed) " +
+            "VALUES (:mentorId, :pending, :approved, :accepted, :rejected, :completed, :reviewed) " +
+            "ON DUPLICATE KEY UPDATE pending = pending + VALUES(pending), approved = approved + VALUES(approved), " +
+            "accepted = accepted + VALUES(accepted), rejected = rejected + VALUES(rejected), " +
+            "completed = completed + VALUES(completed), reviewed = reviewed + VALUES(reviewed)",
+            nativeQuery = true)
+    void applyDelta(@Param("mentorId") Long mentorId, @Param("pending") long pending, @Param("approved") long approved,
+                    @Param("accepted") long accepted, @Param("rejected") long rejected,
+                    @Param("completed") long completed, @Param("reviewed") long reviewed);
+
+    @Modifying
+    @Query("DELETE FROM MentorSessionStats")
+    int deleteAllRows();
+}
@@ -6,10 +6,32 @@ Group 18
 package free_mentor.FreeMentors.repository;
 
 
+import free_mentor.FreeMentors.dto.MentorCount;
+import free_mentor.FreeMentors.dto.MentorScoreCount;
+import free_mentor.FreeMentors.dto.MentorStatusCount;
+import free_mentor.FreeMentors.dto.SessionView;
 import free_mentor.FreeMentors.entity.MentorshipSession;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface MentorshipSessionRepository extends JpaRepository<MentorshipSession, Long> {
 
@@ -28,5 +50,176 @@ public interface MentorshipSessionRepository extends JpaRepository<MentorshipSes
      * @return A list of mentorship sessions created by the mentee
      */
     List<MentorshipSession> findByMenteeId(Long menteeId);
-}
 
+    String SESSION_VIEW = "SELECT new free_mentor.FreeMentors.dto.SessionView(s.id, s.mentor.id, s.mentee.id, " +
+            "s.questions, s.menteeEmail, s.status) FROM MentorshipSession s ";
+
+    /*
+     * Keyset page of a mentor's sessions after the given id. Reads mentor_id/mentee_id from the
+     * session row itself, so the users table is never joined; served by idx_sessions_mentor_status.
+     */
+    @Query(SESSION_VIEW + "WHERE s.mentor.id = :mentorId AND s.id > :afterId ORDER BY s.id")
+    List<SessionView> findViewsByMentorId(@Param("mentorId") Long mentorId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SESSION_VIEW + "WHERE s.mentor.id = :mentorId AND s.status = :status AND s.id > :afterId ORDER BY s.id")
+    List<SessionView> findViewsByMentorIdAndStatus(@Param("mentorId") Long mentorId, @Param("status") SessionStatus status,
+                                                   @Param("afterId") Long afterId, Limit limit);
+
+    /*
+     * Keyset page of a mentee's sessions after the given id; served by idx_sessions_mentee_status.
+     */
+    @Query(SESSION_VIEW + "WHERE s.mentee.id = :menteeId AND s.id > :afterId ORDER BY s.id")
+    List<SessionView> findViewsByMenteeId(@Param("menteeId") Long menteeId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SESSION_VIEW + "WHERE s.mentee.id = :menteeId AND s.status = :status AND s.id > :afterId ORDER BY s.id")
+    List<SessionView> findViewsByMenteeIdAndStatus(@Param("menteeId") Long menteeId, @Param("status") SessionStatus status,
+                                                   @Param("afterId") Long afterId, Limit limit);
+
+    /*
+     * Listing totals. Written out rather than derived, since derived counts on mentor.id join users.
+     */
+    @Query("SELECT COUNT(s) FROM MentorshipSession s WHERE s.mentor.id = :mentorId")
+    long countByMentorId(@Param("mentorId") Long mentorId);
+
+    @Query("SELECT COUNT(s) FROM MentorshipSession s WHERE s.mentor.id = :mentorId AND s.status = :status")
+    long countByMentorIdAndStatus(@Param("mentorId") Long mentorId, @Param("status") SessionStatus status);
+
+    @Query("SELECT COUNT(s) FROM MentorshipSession s WHERE s.mentee.id = :menteeId")
+    long countByMenteeId(@Param("menteeId") Long menteeId);
+
+    @Query("SELECT COUNT(s) FROM MentorshipSession s WHERE s.mentee.id = :menteeId AND s.status = :status")
+    long countByMenteeIdAndStatus(@Param("menteeId") Long menteeId, @Param("status") SessionStatus status);
+
+    @Query(SESSION_VIEW + "WHERE s.id = :id")
+    Optional<SessionView> findViewById(@Param("id") Long id);
+
+    /*
+     * Moves a session to a new status in one statement, only if it belongs to the mentor and is
+     * currently in one of the allowed source statuses. No transition leads back to PENDING, so the
+     * pending-pair marker is always released. Returns the number of rows changed (0 or 1);
+     * of two concurrent transitions on the same session, exactly one applies.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE MentorshipSession s SET s.status = :target, s.pendingPair = NULL, s.updatedAt = :now, " +
+            "s.version = s.version + 1 WHERE s.id = :id AND s.mentor.id = :mentorId AND s.status IN :sources")
+    int transitionStatus(@Param("id") Long id, @Param("mentorId") Long mentorId,
+                         @Param("sources") Collection<SessionStatus> sources, @Param("target") SessionStatus target,
+                         @Param("now") Instant now);
+
+    @Query(SESSION_VIEW + "WHERE s.id IN :ids")
+    List<SessionView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Reads the mentor's sessions with a locking read (SELECT ... FOR UPDATE), which sees the latest
+     * committed state rather than the transaction's snapshot and holds the rows until commit. Only
+     * the mentor's own rows are locked, so a request naming other mentors' sessions cannot block
+     * them. Rows are locked in id order, so two bulk updates over overlapping sessions cannot
+     * deadlock on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(SESSION_VIEW + "WHERE s.mentor.id = :mentorId AND s.id IN :ids ORDER BY s.id")
+    List<SessionView> lockViewsByMentorAndIdIn(@Param("mentorId") Long mentorId, @Param("ids") Collection<Long> ids);
+
+    /*
+     * Bulk form of transitionStatus: one UPDATE over many sessions, with the same ownership and
+     * status guard applied to each row. Returns the number of rows changed.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE MentorshipSession s SET s.status = :target, s.pendingPair = NULL, s.updatedAt = :now, " +
+            "s.version = s.version + 1 WHERE s.id IN :ids AND s.mentor.id = :mentorId AND s.status IN :sources")
+    int transitionStatuses(@Param("ids") Collection<Long> ids, @Param("mentorId") Long mentorId,
+                           @Param("sources") Collection<SessionStatus> sources, @Param("target") SessionStatus target,
+                           @Param("now") Instant now);
+
+    /*
+     * Streams sessions in id order for export, optionally filtered by status and an inclusive id range.
+     * Must be consumed inside a read-only transaction and closed; with useCursorFetch the driver
+     * pulls rows in fetch-size batches instead of buffering the whole result.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM MentorshipSession s WHERE (:status IS NULL OR s.status = :status) " +
+            "AND s.id >= :fromId AND s.id <= :toId ORDER BY s.id")
+    Stream<MentorshipSession> streamForExport(@Param("status") SessionStatus status,
+                                              @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /*
+     * Loads a session together with its mentee, for responses that include the mentee's name.
+     */
+    @EntityGraph(attributePaths = "mentee")
+    Optional<MentorshipSession> findWithMenteeById(Long id);
+
+    boolean existsByPendingPair(String pendingPair);
+
+    /*
+     * Counts reviews per mentor and score; used once to seed the mentor_ratings aggregates.
+     */
+    @Query("SELECT s.mentor.id AS mentorId, s.score AS score, COUNT(s) AS reviews FROM MentorshipSession s " +
+            "WHERE s.score IS NOT NULL GROUP BY s.mentor.id, s.score")
+    List<MentorScoreCount> countReviewsByMentorAndScore();
+
+    /*
+     * Pending requests per mentor, for mentors that have any.
+     */
+    @Query("SELECT s.mentor.id AS mentorId, COUNT(s) AS count FROM MentorshipSession s " +
+            "WHERE s.status = free_mentor.FreeMentors.entity.SessionStatus.PENDING GROUP BY s.mentor.id")
+    List<MentorCount> countPendingByMentor();
+
+    /*
+     * Sessions and reviews per mentor and status, for rebuilding the live session counters.
+     */
+    @Query("SELECT s.mentor.id AS mentorId, s.status AS status, COUNT(s) AS sessions, COUNT(s.score) AS reviews " +
+            "FROM MentorshipSession s GROUP BY s.mentor.id, s.status")
+    List<MentorStatusCount> countByMentorAndStatus();
+
+    /*
+     * Cold sessions: finished (REJECTED or COMPLETED) and either reviewed and unchanged since
+     * reviewedCutoff, or unchanged since retentionCutoff. Open sessions never qualify, and neither
+     * do sessions without updatedAt until stampMissingUpdatedAt has started their clock.
+     */
+    String COLD_SESSION = "s.status IN (free_mentor.FreeMentors.entity.SessionStatus.REJECTED, " +
+            "free_mentor.FreeMentors.entity.SessionStatus.COMPLETED) " +
+            "AND s.updatedAt IS NOT NULL AND (s.updatedAt < :retentionCutoff " +
+            "OR (s.score IS NOT NULL AND s.updatedAt < :reviewedCutoff)) ";
+
+    /*
+     * Sets updatedAt on up to limit sessions written before the column existed, so their age is
+     * counted from now instead of being unknown.
+     */
+    @Modifying
+    @Query(value = "UPDATE mentorship_session SET updated_at = :now WHERE updated_at IS NULL LIMIT :limit",
+            nativeQuery = true)
+    int stampMissingUpdatedAt(@Param("now") Instant now, @Param("limit") int limit);
+
+    /*
+     * Next cold session ids after the archiver's cursor, scanned in primary key order.
+     */
+    @Query("SELECT s.id FROM MentorshipSession s WHERE s.id > :afterId AND " + COLD_SESSION + "ORDER BY s.id")
+    List<Long> findColdIds(@Param("afterId") long afterId, @Param("reviewedCutoff") Instant reviewedCutoff,
+                           @Param("retentionCutoff") Instant retentionCutoff, Limit limit);
+
+    /*
+     * Locks the given sessions that are still cold (SELECT ... FOR UPDATE), so a concurrent status
+     * change or review waits for the move and then finds the session gone.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM MentorshipSession s WHERE s.id IN :ids AND " + COLD_SESSION)
+    List<MentorshipSession> lockColdByIds(@Param("ids") Collection<Long> ids,
+                                          @Param("reviewedCutoff") Instant reviewedCutoff,
+                                          @Param("retentionCutoff") Instant retentionCutoff);
+
+    @Modifying
+    @Query(value = "INSERT INTO mentorship_session_archive " +
+            "(id, mentor_id, mentee_id, questions, mentee_email, status, score, remark, updated_at, archived_at) " +
+            "SELECT s.id, s.mentor_id, s.mentee_id, s.questions, s.mentee_email, s.status, s.score, s.remark, " +
+            "s.updated_at, :archivedAt FROM mentorship_session s WHERE s.id IN (:ids)", nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("archivedAt") Instant archivedAt);
+
+    @Modifying
+    @Query("DELETE FROM MentorshipSession s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
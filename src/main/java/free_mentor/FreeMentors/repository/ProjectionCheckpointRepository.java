@@ -0,0 +1,30 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.repository;
+
+import free_mentor.FreeMentors.entity.ProjectionCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ProjectionCheckpointRepository extends JpaRepository<ProjectionCheckpoint, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO projection_checkpoint (name, position, updated_at) VALUES (:name, 0, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE name = name", nativeQuery = true)
+    void ensureExists(@Param("name") String name);
+
+    /*
+     * Reads the checkpoint with a row lock held until the transaction ends (SELECT ... FOR UPDATE).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ProjectionCheckpoint c WHERE c.name = :name")
+    Optional<ProjectionCheckpoint> findForUpdate(@Param("name") String name);
+}
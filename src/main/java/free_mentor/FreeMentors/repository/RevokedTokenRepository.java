@@ -0,0 +1,39 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.repository;
+
+import free_mentor.FreeMentors.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    /*
+     * Revocations recorded after the given row id that are still relevant.
+     */
+    List<RevokedToken> findByIdGreaterThanAndExpiresAtAfterOrderById(Long id, Instant now);
+
+    /*
+     * Records the revocation unless the token is already revoked.
+     *
+     * @return 1 if this call revoked the token, 0 if it had been revoked before
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO revoked_tokens (token_hash, expires_at) VALUES (:tokenHash, :expiresAt)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("tokenHash") long tokenHash, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
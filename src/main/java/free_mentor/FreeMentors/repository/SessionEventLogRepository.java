@@ -0,0 +1,44 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.repository;
+
+import free_mentor.FreeMentors.entity.SessionEventLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface SessionEventLogRepository extends JpaRepository<SessionEventLogEntry, Long> {
+
+    /*
+     * The next entries after a checkpoint, in log order.
+     */
+    List<SessionEventLogEntry> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+
+    /*
+     * Entries the projector moved past before they were visible and that have committed since.
+     */
+    @Query("SELECT e FROM SessionEventLogEntry e WHERE e.id IN (SELECT g.entryId FROM SessionProjectionGap g) ORDER BY e.id")
+    List<SessionEventLogEntry> findSkipped(Limit limit);
+
+    List<SessionEventLogEntry> findBySessionIdOrderByIdAsc(Long sessionId);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM SessionEventLogEntry e")
+    long headPosition();
+
+    /*
+     * Records each session that has no log entry yet (it predates the log) as created in its
+     * current state.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO session_event_log (type, session_id, mentor_id, mentee_id, status, score, occurred_at) " +
+            "SELECT 'CREATED', s.id, s.mentor_id, s.mentee_id, s.status, s.score, CURRENT_TIMESTAMP " +
+            "FROM mentorship_session s " +
+            "WHERE NOT EXISTS (SELECT 1 FROM session_event_log e WHERE e.session_id = s.id) ORDER BY s.id",
+            nativeQuery = true)
+    int backfillFromSessions();
+}
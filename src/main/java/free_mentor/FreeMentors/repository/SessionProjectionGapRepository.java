@@ -0,0 +1,24 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.repository;
+
+import free_mentor.FreeMentors.entity.SessionProjectionGap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface SessionProjectionGapRepository extends JpaRepository<SessionProjectionGap, Long> {
+
+    @Modifying
+    @Query("DELETE FROM SessionProjectionGap g WHERE g.skippedAt < :cutoff")
+    int deleteSkippedBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("DELETE FROM SessionProjectionGap g WHERE g.entryId > :afterId")
+    int deleteByEntryIdAfter(@Param("afterId") long afterId);
+}
@@ -0,0 +1,31 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.repository;
+
+import free_mentor.FreeMentors.dto.SessionStatusCount;
+import free_mentor.FreeMentors.entity.SessionReadModel;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SessionReadModelRepository extends JpaRepository<SessionReadModel, Long> {
+
+    // Newest first, for dashboards
+    List<SessionReadModel> findByMentorIdOrderBySessionIdDesc(Long mentorId, Limit limit);
+
+    List<SessionReadModel> findByMenteeIdOrderBySessionIdDesc(Long menteeId, Limit limit);
+
+    @Query("SELECT r.status AS status, COUNT(r) AS sessions FROM SessionReadModel r " +
+            "WHERE r.menteeId = :menteeId GROUP BY r.status")
+    List<SessionStatusCount> countByMenteeIdGroupByStatus(@Param("menteeId") Long menteeId);
+
+    @Modifying
+    @Query("DELETE FROM SessionReadModel")
+    int deleteAllRows();
+}
@@ -0,0 +1,46 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.repository;
+
+import free_mentor.FreeMentors.entity.SessionWaitlistEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SessionWaitlistRepository extends JpaRepository<SessionWaitlistEntry, Long> {
+
+    /*
+     * The oldest waiting requests for a mentor, in arrival order; served by idx_waitlist_mentor_id.
+     */
+    @Query("SELECT w FROM SessionWaitlistEntry w WHERE w.mentor.id = :mentorId ORDER BY w.id")
+    List<SessionWaitlistEntry> findOldest(@Param("mentorId") Long mentorId, Limit limit);
+
+    @Query("SELECT w FROM SessionWaitlistEntry w WHERE w.mentee.id = :menteeId ORDER BY w.id")
+    List<SessionWaitlistEntry> findByMenteeId(@Param("menteeId") Long menteeId);
+
+    @Query("SELECT COUNT(w) FROM SessionWaitlistEntry w WHERE w.mentee.id = :menteeId")
+    long countByMenteeId(@Param("menteeId") Long menteeId);
+
+    /*
+     * 1-based queue position: entries for the same mentor that arrived earlier, plus one.
+     * Bounded by the per-mentor waitlist limit.
+     */
+    @Query("SELECT COUNT(w) + 1 FROM SessionWaitlistEntry w WHERE w.mentor.id = :mentorId AND w.id < :id")
+    long positionOf(@Param("mentorId") Long mentorId, @Param("id") Long id);
+
+    @Query("SELECT DISTINCT w.mentor.id FROM SessionWaitlistEntry w")
+    List<Long> findMentorIdsWithWaitlist();
+
+    /*
+     * Claims an entry for promotion or cancellation; of two nodes racing for it, only one gets 1.
+     */
+    @Modifying
+    @Query("DELETE FROM SessionWaitlistEntry w WHERE w.id = :id")
+    int claim(@Param("id") Long id);
+}
@@ -5,18 +5,28 @@ Group 18
 
 package free_mentor.FreeMentors.repository;
 
+import free_mentor.FreeMentors.dto.MentorCard;
+import free_mentor.FreeMentors.dto.UserEmailView;
 import free_mentor.FreeMentors.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    boolean existsByEmail(String email);
+
 
 
     @Query("SELECT u FROM User u WHERE u.role = free_mentor.FreeMentors.entity.Role.MENTOR")
@@ -26,6 +36,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.id = :id AND u.role = free_mentor.FreeMentors.entity.Role.MENTOR")
     Optional<User> findMentorById(@Param("id") Long id);
 
+    // Public mentor fields only, keyset-paginated by id (served by idx_users_role_id)
+    @Query("SELECT new free_mentor.FreeMentors.dto.MentorCard(u.id, u.firstName, u.lastName, u.bio, u.occupation, u.expertise) " +
+            "FROM User u WHERE u.role = free_mentor.FreeMentors.entity.Role.MENTOR AND u.id > :afterId ORDER BY u.id")
+    List<MentorCard> findMentorCardsAfterId(@Param("afterId") Long afterId, Limit limit);
+
+    // Public mentor fields only, keyset-paginated by (lastName, id) (served by idx_users_role_last_name)
+    @Query("SELECT new free_mentor.FreeMentors.dto.MentorCard(u.id, u.firstName, u.lastName, u.bio, u.occupation, u.expertise) " +
+            "FROM User u WHERE u.role = free_mentor.FreeMentors.entity.Role.MENTOR " +
+            "AND (u.lastName > :lastName OR (u.lastName = :lastName AND u.id > :afterId)) ORDER BY u.lastName, u.id")
+    List<MentorCard> findMentorCardsAfterLastName(@Param("lastName") String lastName, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT new free_mentor.FreeMentors.dto.MentorCard(u.id, u.firstName, u.lastName, u.bio, u.occupation, u.expertise) " +
+            "FROM User u WHERE u.id = :id AND u.role = free_mentor.FreeMentors.entity.Role.MENTOR")
+    Optional<MentorCard> findMentorCardById(@Param("id") Long id);
+
+    // Streams (id, email) pairs in id order; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.id AS id, u.email AS email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    Stream<UserEmailView> streamEmailsAfter(@Param("afterId") Long afterId);
+
 
 }
 
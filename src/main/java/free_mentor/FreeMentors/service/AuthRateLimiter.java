@@ -0,0 +1,64 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.exception.TooManyRequestsException;
+import free_mentor.FreeMentors.utils.Hashing;
+import free_mentor.FreeMentors.utils.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Per-client-IP and per-account throttling for the /auth endpoints, applied before any
+ * BCrypt or database work. Keys are 64-bit hashes, so raw emails and addresses are never retained.
+ */
+@Service
+public class AuthRateLimiter {
+
+    private final RateLimiter ipLimiter;
+    private final RateLimiter accountLimiter;
+
+    public AuthRateLimiter(@Value("${auth.rate-limit.ip.per-minute:60}") int ipPerMinute,
+                           @Value("${auth.rate-limit.ip.burst:20}") int ipBurst,
+                           @Value("${auth.rate-limit.account.per-minute:10}") int accountPerMinute,
+                           @Value("${auth.rate-limit.account.burst:5}") int accountBurst) {
+        this.ipLimiter = new RateLimiter(ipPerMinute, ipBurst);
+        this.accountLimiter = new RateLimiter(accountPerMinute, accountBurst);
+    }
+
+    /*
+     * @return 0 if allowed, otherwise the seconds the client should wait
+     */
+    public long checkClient(String clientIp) {
+        return toRetryAfterSeconds(ipLimiter.tryAcquire(Hashing.hash64(clientIp)));
+    }
+
+    /*
+     * @throws TooManyRequestsException if the account is over its limit
+     */
+    public void checkAccount(String email) {
+        if (email == null) {
+            return;
+        }
+        long retryAfter = toRetryAfterSeconds(accountLimiter.tryAcquire(Hashing.hash64(email.trim().toLowerCase(Locale.ROOT))));
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many attempts for this account, please retry later", retryAfter);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.idle-sweep-interval-ms:60000}")
+    public void evictIdle() {
+        ipLimiter.evictIdle();
+        accountLimiter.evictIdle();
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return waitNanos <= 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.dto.UserEmailView;
+import free_mentor.FreeMentors.repository.UserRepository;
+import free_mentor.FreeMentors.utils.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/*
+ * In-memory Bloom filter of every registered email.
+ *
+ * Built at startup by streaming the users table and kept current by local signups plus a
+ * periodic catch-up of rows inserted by other nodes. Identity ids are assigned at insert but
+ * become visible at commit, so a lower id can appear after a higher one; each catch-up therefore
+ * re-reads a window of lookbackIds below the highest id seen (adding an email twice is harmless).
+ *
+ * A miss is authoritative, so unknown emails never reach the database. The cost is that a signup
+ * on another node is unknown here until the next catch-up, at most one sync interval (1 s by
+ * default), during which signing in on this node is rejected like a wrong password and can be retried.
+ * Until the initial build finishes every email "might exist", so lookups fall through to the database.
+ */
+@Component
+public class EmailIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailIndex.class);
+
+    private final UserRepository userRepository;
+    private final BloomFilter filter;
+    private volatile boolean ready;
+    private final long lookbackIds;
+    private long lastSeenId;
+    // Guards lastSeenId; held while streaming from the database, so a lock rather than synchronized
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public EmailIndex(UserRepository userRepository,
+                      @Value("${email-index.expected-insertions:1000000}") long expectedInsertions,
+                      @Value("${email-index.false-positive-probability:0.01}") double falsePositiveProbability,
+                      @Value("${email-index.lookback-ids:1000}") long lookbackIds) {
+        this.userRepository = userRepository;
+        this.lookbackIds = lookbackIds;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    /*
+     * @return false if the email is not registered, or signed up on another node since the last catch-up
+     */
+    public boolean mightExist(String email) {
+        return !ready || email == null || filter.mightContain(normalize(email));
+    }
+
+    public void add(String email) {
+        filter.add(normalize(email));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        long count = catchUp();
+        ready = true;
+        log.info("Email index built from {} users", count);
+    }
+
+    @Scheduled(fixedDelayString = "${email-index.sync-interval-ms:1000}",
+            initialDelayString = "${email-index.sync-interval-ms:1000}")
+    @Transactional(readOnly = true)
+    public void sync() {
+        if (ready) {
+            catchUp();
+        }
+    }
+
+    private long catchUp() {
+        lock.lock();
+        try {
+            long count = 0;
+            try (Stream<UserEmailView> users = userRepository.streamEmailsAfter(Math.max(0, lastSeenId - lookbackIds))) {
+                for (UserEmailView user : (Iterable<UserEmailView>) users::iterator) {
+                    filter.add(normalize(user.getEmail()));
+                    lastSeenId = Math.max(lastSeenId, user.getId());
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // MySQL's default collation compares emails case-insensitively, so the index must too
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
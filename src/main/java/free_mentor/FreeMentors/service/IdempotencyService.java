@@ -0,0 +1,120 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.utils.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*
+ * Replays the first response to a request carrying an Idempotency-Key instead of running it again.
+ *
+ * Keys are scoped to the user and endpoint. The first request for a key stores an in-flight
+ * future, so concurrent retries wait for that one execution and then replay its response.
+ * Completed responses stay in a bounded TTL cache. Only successes and client errors are kept;
+ * server errors, including the 503 the controllers answer for transient database failures, and
+ * exceptions are dropped so the client can retry them. Reusing a key with a different request
+ * body is rejected.
+ *
+ * The store is per node. Retries that land on another node are still kept from creating
+ * duplicate pending sessions by the database constraint.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final TtlCache<String, Execution> executions;
+    private final long waitTimeoutMillis;
+
+    public IdempotencyService(@Value("${idempotency.max-keys:100000}") int maxKeys,
+                              @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${idempotency.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this.executions = new TtlCache<>(maxKeys, ttlSeconds * 1000);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /*
+     * Runs action once per (userId, scope, key) and returns its response, or the stored
+     * response of an earlier or concurrent run with the same key.
+     *
+     * @param request The request body, used to detect a key reused for a different request
+     */
+    public ResponseEntity<Map<String, Object>> execute(Long userId, String scope, String key, Object request,
+                                                       Supplier<ResponseEntity<Map<String, Object>>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = userId + ":" + scope + ":" + key;
+        Execution execution = new Execution(Objects.hashCode(request));
+        Execution existing = executions.putIfAbsent(cacheKey, execution);
+        if (existing != null) {
+            if (existing.requestHash != execution.requestHash) {
+                throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+            }
+            return replay(existing);
+        }
+
+        ResponseEntity<Map<String, Object>> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            executions.invalidate(cacheKey);
+            execution.result.completeExceptionally(e);
+            throw e;
+        }
+        if (!response.getStatusCode().is2xxSuccessful() && !response.getStatusCode().is4xxClientError()) {
+            executions.invalidate(cacheKey);
+        }
+        execution.result.complete(response);
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> replay(Execution execution) {
+        ResponseEntity<Map<String, Object>> stored;
+        try {
+            stored = execution.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", "A request with this Idempotency-Key is still in progress");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an idempotent request", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return ResponseEntity.status(stored.getStatusCode())
+                .headers(stored.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.getBody());
+    }
+
+    private static final class Execution {
+        private final int requestHash;
+        private final CompletableFuture<ResponseEntity<Map<String, Object>>> result = new CompletableFuture<>();
+
+        private Execution(int requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.event.MentorCapacityFreedEvent;
+import free_mentor.FreeMentors.repository.MentorLoadRepository;
+import free_mentor.FreeMentors.repository.SessionWaitlistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/*
+ * Per-mentor limits on open sessions (pending or approved) and on waitlisted requests.
+ *
+ * Each mentor has a mentor_load row whose counters are only changed by guarded single-row
+ * UPDATEs ("... + 1 WHERE open_sessions < capacity"), so the check and the increment are one
+ * atomic statement on every node and no request has to count sessions. Callers run these inside
+ * the transaction that creates or finishes the session, so a rollback also returns the slot.
+ * The counters are recomputed from the tables at startup and periodically to repair drift.
+ *
+ * Fairness: a mentor's waitlist is served strictly in arrival order, its length is capped, and a
+ * mentee can wait for only a few mentors at once, so no single mentee can crowd out the others.
+ */
+@Service
+public class MentorCapacityService {
+
+    private static final Logger log = LoggerFactory.getLogger(MentorCapacityService.class);
+
+    private final MentorLoadRepository loadRepository;
+    private final SessionWaitlistRepository waitlistRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int capacity;
+    private final int waitlistPerMentor;
+    private final int waitlistPerMentee;
+
+    public MentorCapacityService(MentorLoadRepository loadRepository,
+                                 SessionWaitlistRepository waitlistRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${sessions.capacity.per-mentor:10}") int capacity,
+                                 @Value("${sessions.waitlist.max-per-mentor:100}") int waitlistPerMentor,
+                                 @Value("${sessions.waitlist.max-per-mentee:3}") int waitlistPerMentee) {
+        this.loadRepository = loadRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.eventPublisher = eventPublisher;
+        this.capacity = capacity;
+        this.waitlistPerMentor = waitlistPerMentor;
+        this.waitlistPerMentee = waitlistPerMentee;
+    }
+
+    /*
+     * Takes an open-session slot for the mentor. Always succeeds when capacity is 0 (unlimited).
+     */
+    public boolean tryAcquire(Long mentorId) {
+        if (capacity <= 0) {
+            return true;
+        }
+        if (loadRepository.tryAcquire(mentorId, capacity) == 1) {
+            return true;
+        }
+        if (loadRepository.existsById(mentorId)) {
+            return false;
+        }
+        // First request for this mentor since the counters were seeded
+        loadRepository.ensureExists(mentorId);
+        return loadRepository.tryAcquire(mentorId, capacity) == 1;
+    }
+
+    /*
+     * Returns slots after sessions finish and lets the mentor's waitlist move up once committed.
+     */
+    public void release(Long mentorId, int count) {
+        if (capacity <= 0 || count <= 0) {
+            return;
+        }
+        loadRepository.release(mentorId, count);
+        eventPublisher.publishEvent(new MentorCapacityFreedEvent(mentorId));
+    }
+
+    /*
+     * Returns a slot that was taken but not used, without triggering promotion.
+     */
+    public void giveBack(Long mentorId) {
+        if (capacity > 0) {
+            loadRepository.release(mentorId, 1);
+        }
+    }
+
+    /*
+     * Reserves a place on the mentor's waitlist.
+     *
+     * @throws RuntimeException if the mentee already waits for the maximum number of mentors,
+     *                          or the mentor's waitlist is full
+     */
+    public void reserveWaitlistPlace(Long mentorId, Long menteeId) {
+        if (waitlistRepository.countByMenteeId(menteeId) >= waitlistPerMentee) {
+            throw new RuntimeException("You can be on at most " + waitlistPerMentee + " mentor waitlists at a time");
+        }
+        // The row exists: tryAcquire has just created it if needed
+        if (loadRepository.tryEnqueue(mentorId, waitlistPerMentor) == 0) {
+            throw new RuntimeException("This mentor's waitlist is full, please try another mentor");
+        }
+    }
+
+    public void releaseWaitlistPlace(Long mentorId) {
+        loadRepository.dequeue(mentorId);
+    }
+
+    /*
+     * Recomputes all counters from the session and waitlist tables, then gives every mentor
+     * with a waitlist a chance to promote (capacity may have been raised, or counters were high).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${sessions.capacity.reconcile-interval-ms:3600000}",
+            initialDelayString = "${sessions.capacity.reconcile-interval-ms:3600000}")
+    @Transactional
+    public void reconcile() {
+        if (capacity <= 0) {
+            return;
+        }
+        loadRepository.seedMentors();
+        int mentors = loadRepository.reconcile();
+        List<Long> waiting = waitlistRepository.findMentorIdsWithWaitlist();
+        waiting.forEach(mentorId -> eventPublisher.publishEvent(new MentorCapacityFreedEvent(mentorId)));
+        log.info("Reconciled session capacity counters for {} mentors, {} with a waitlist", mentors, waiting.size());
+    }
+}
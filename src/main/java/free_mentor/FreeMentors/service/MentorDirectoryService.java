@@ -0,0 +1,124 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.dto.MentorCard;
+import free_mentor.FreeMentors.event.MentorChangedEvent;
+import free_mentor.FreeMentors.repository.UserRepository;
+import free_mentor.FreeMentors.utils.TtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+ * Read-through cache of mentor cards and directory pages.
+ *
+ * Entries expire after a TTL and are evicted in LRU order beyond the size limits. A
+ * MentorChangedEvent evicts the affected card and every cached page. A generation counter
+ * lets a load that raced with an invalidation drop its possibly stale result.
+ */
+@Service
+public class MentorDirectoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(MentorDirectoryService.class);
+
+    private final UserRepository userRepository;
+    private final TtlCache<Long, MentorCard> cards;
+    private final TtlCache<String, List<MentorCard>> pages;
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxCards;
+
+    public MentorDirectoryService(UserRepository userRepository,
+                                  @Value("${mentors.cache.max-size:10000}") int maxCards,
+                                  @Value("${mentors.cache.max-pages:1000}") int maxPages,
+                                  @Value("${mentors.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.maxCards = maxCards;
+        this.cards = new TtlCache<>(maxCards, ttlSeconds * 1000);
+        this.pages = new TtlCache<>(maxPages, ttlSeconds * 1000);
+    }
+
+    public Optional<MentorCard> findMentor(Long mentorId) {
+        MentorCard card = cards.get(mentorId);
+        if (card != null) {
+            return Optional.of(card);
+        }
+        long loadGeneration = generation.get();
+        Optional<MentorCard> loaded = userRepository.findMentorCardById(mentorId);
+        loaded.ifPresent(found -> {
+            cards.put(mentorId, found);
+            if (generation.get() != loadGeneration) {
+                cards.invalidate(mentorId); // invalidated while loading
+            }
+        });
+        return loaded;
+    }
+
+    public boolean isMentor(Long userId) {
+        return findMentor(userId).isPresent();
+    }
+
+    /*
+     * Mentors ordered by id, starting after the given id.
+     */
+    public List<MentorCard> findPageById(long afterId, int fetchSize) {
+        return page("id|" + afterId + "|" + fetchSize,
+                () -> userRepository.findMentorCardsAfterId(afterId, Limit.of(fetchSize)));
+    }
+
+    /*
+     * Mentors ordered by (last name, id), starting after the given position.
+     */
+    public List<MentorCard> findPageByLastName(String lastName, long afterId, int fetchSize) {
+        return page("name|" + lastName + "|" + afterId + "|" + fetchSize,
+                () -> userRepository.findMentorCardsAfterLastName(lastName, afterId, Limit.of(fetchSize)));
+    }
+
+    @EventListener
+    public void onMentorChanged(MentorChangedEvent event) {
+        generation.incrementAndGet();
+        cards.invalidate(event.userId());
+        pages.invalidateAll();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long afterId = 0;
+        int loaded = 0;
+        while (loaded < maxCards) {
+            List<MentorCard> batch = userRepository.findMentorCardsAfterId(afterId, Limit.of(Math.min(500, maxCards - loaded)));
+            if (batch.isEmpty()) {
+                break;
+            }
+            batch.forEach(card -> cards.put(card.getId(), card));
+            loaded += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        log.info("Mentor cache warmed with {} mentors", loaded);
+    }
+
+    private List<MentorCard> page(String key, Supplier<List<MentorCard>> loader) {
+        List<MentorCard> cached = pages.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        List<MentorCard> loaded = List.copyOf(loader.get());
+        pages.put(key, loaded);
+        if (generation.get() != loadGeneration) {
+            pages.invalidate(key); // invalidated while loading
+        }
+        return loaded;
+    }
+}
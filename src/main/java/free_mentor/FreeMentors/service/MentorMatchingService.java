@@ -0,0 +1,322 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.dto.MentorCard;
+import free_mentor.FreeMentors.dto.MentorCount;
+import free_mentor.FreeMentors.dto.MentorMatch;
+import free_mentor.FreeMentors.entity.MentorRating;
+import free_mentor.FreeMentors.event.MentorChangedEvent;
+import free_mentor.FreeMentors.repository.MentorshipSessionRepository;
+import free_mentor.FreeMentors.repository.UserRepository;
+import free_mentor.FreeMentors.utils.TextTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/*
+ * Ranks mentors for a mentee's questions.
+ *
+ * Every mentor's expertise and bio is held as an L2-normalized TF-IDF vector in one compressed
+ * sparse row layout (term ids and weights in flat primitive arrays). A query is scored against
+ * all vectors with a sorted-merge dot product, split across cores in chunks, each keeping a
+ * bounded top-k heap. Similarity is then weighted by the mentor's rating (Bayesian average) and
+ * damped by how many requests are already pending for them.
+ *
+ * The vector index is an immutable snapshot swapped in whole: it is rebuilt shortly after a
+ * MentorChangedEvent and periodically, because IDF weights depend on every mentor anyway.
+ */
+@Service
+public class MentorMatchingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MentorMatchingService.class);
+
+    private static final float EXPERTISE_WEIGHT = 2.0f;
+    private static final float BIO_WEIGHT = 1.0f;
+    private static final int PARALLEL_THRESHOLD = 2048;
+
+    // Bayesian prior for ratings: unrated mentors count as PRIOR_REVIEWS reviews of PRIOR_SCORE
+    private static final double PRIOR_SCORE = 3.5;
+    private static final double PRIOR_REVIEWS = 5;
+
+    private final UserRepository userRepository;
+    private final MentorshipSessionRepository sessionRepository;
+    private final MentorRatingService mentorRatingService;
+    private final double pendingSoftLimit;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile Map<Long, Long> pendingByMentor = Map.of();
+    private volatile boolean dirty;
+    // One rebuild at a time; held across the mentor queries
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public MentorMatchingService(UserRepository userRepository,
+                                 MentorshipSessionRepository sessionRepository,
+                                 MentorRatingService mentorRatingService,
+                                 @Value("${matching.pending-soft-limit:10}") double pendingSoftLimit) {
+        this.userRepository = userRepository;
+        this.sessionRepository = sessionRepository;
+        this.mentorRatingService = mentorRatingService;
+        this.pendingSoftLimit = pendingSoftLimit;
+    }
+
+    public List<MentorMatch> match(String questions, int limit) {
+        Snapshot index = snapshot;
+        Map<Long, Long> pending = pendingByMentor;
+
+        // Query vector, sorted by term id
+        Map<Integer, Float> frequencies = new HashMap<>();
+        for (String term : TextTokenizer.tokenize(questions)) {
+            Integer termId = index.vocabulary.get(term);
+            if (termId != null) {
+                frequencies.merge(termId, 1f, Float::sum);
+            }
+        }
+        if (frequencies.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int[] queryTerms = frequencies.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        float[] queryWeights = new float[queryTerms.length];
+        for (int i = 0; i < queryTerms.length; i++) {
+            queryWeights[i] = frequencies.get(queryTerms[i]) * index.idf[queryTerms[i]];
+        }
+        normalize(queryWeights);
+
+        int docs = index.mentors.length;
+        int chunks = docs < PARALLEL_THRESHOLD ? 1 : Runtime.getRuntime().availableProcessors() * 4;
+        int chunkSize = (docs + chunks - 1) / chunks;
+        List<Candidate> candidates = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> scoreRange(index, pending, queryTerms, queryWeights,
+                        chunk * chunkSize, Math.min(docs, (chunk + 1) * chunkSize), limit))
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingDouble(Candidate::score).reversed())
+                .limit(limit)
+                .toList();
+
+        List<MentorMatch> matches = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            MentorCard mentor = index.mentors[candidate.doc];
+            Optional<MentorRating> rating = mentorRatingService.getRating(mentor.getId());
+            matches.add(new MentorMatch(mentor, candidate.score, candidate.similarity,
+                    rating.map(MentorRating::getAverageScore).orElse(0.0),
+                    pending.getOrDefault(mentor.getId(), 0L)));
+        }
+        return matches;
+    }
+
+    private List<Candidate> scoreRange(Snapshot index, Map<Long, Long> pending, int[] queryTerms, float[] queryWeights,
+                                       int from, int to, int limit) {
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Candidate::score));
+        for (int doc = from; doc < to; doc++) {
+            double similarity = dot(index, doc, queryTerms, queryWeights);
+            if (similarity <= 0) {
+                continue;
+            }
+            Long mentorId = index.mentors[doc].getId();
+            double score = similarity * ratingFactor(mentorId) * loadFactor(pending.getOrDefault(mentorId, 0L));
+            if (heap.size() < limit) {
+                heap.offer(new Candidate(doc, score, similarity));
+            } else if (score > heap.peek().score) {
+                heap.poll();
+                heap.offer(new Candidate(doc, score, similarity));
+            }
+        }
+        return new ArrayList<>(heap);
+    }
+
+    // Sorted-merge dot product of the sparse document and query vectors
+    private static double dot(Snapshot index, int doc, int[] queryTerms, float[] queryWeights) {
+        int i = index.offsets[doc];
+        int end = index.offsets[doc + 1];
+        int j = 0;
+        double sum = 0;
+        while (i < end && j < queryTerms.length) {
+            int docTerm = index.terms[i];
+            int queryTerm = queryTerms[j];
+            if (docTerm == queryTerm) {
+                sum += index.weights[i++] * queryWeights[j++];
+            } else if (docTerm < queryTerm) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return sum;
+    }
+
+    // 0.2 .. 1.0, from the Bayesian average review score
+    private double ratingFactor(Long mentorId) {
+        Optional<MentorRating> rating = mentorRatingService.getRating(mentorId);
+        long reviews = rating.map(MentorRating::getReviewCount).orElse(0L);
+        long sum = rating.map(MentorRating::getScoreSum).orElse(0L);
+        return (PRIOR_SCORE * PRIOR_REVIEWS + sum) / (PRIOR_REVIEWS + reviews) / 5.0;
+    }
+
+    // 1.0 with nothing pending, 0.5 at the soft limit, approaching 0 beyond it
+    private double loadFactor(long pendingRequests) {
+        return 1.0 / (1.0 + pendingRequests / pendingSoftLimit);
+    }
+
+    @EventListener
+    public void onMentorChanged(MentorChangedEvent event) {
+        dirty = true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${matching.refresh-interval-ms:5000}",
+            initialDelayString = "${matching.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (dirty) {
+            rebuild();
+        }
+        refreshPendingCounts();
+    }
+
+    @Scheduled(fixedDelayString = "${matching.rebuild-interval-ms:600000}",
+            initialDelayString = "${matching.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            dirty = false;
+            List<MentorCard> mentors = new ArrayList<>();
+            long afterId = 0;
+            while (true) {
+                List<MentorCard> batch = userRepository.findMentorCardsAfterId(afterId, Limit.of(1000));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                mentors.addAll(batch);
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+            snapshot = Snapshot.build(mentors);
+            refreshPendingCounts();
+            log.info("Mentor matching index built for {} mentors, {} terms", mentors.size(), snapshot.idf.length);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void refreshPendingCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (MentorCount row : sessionRepository.countPendingByMentor()) {
+            counts.put(row.getMentorId(), row.getCount());
+        }
+        pendingByMentor = counts;
+    }
+
+    private static void normalize(float[] weights) {
+        double norm = 0;
+        for (float weight : weights) {
+            norm += weight * weight;
+        }
+        norm = Math.sqrt(norm);
+        if (norm > 0) {
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] /= (float) norm;
+            }
+        }
+    }
+
+    private record Candidate(int doc, double score, double similarity) {
+    }
+
+    /*
+     * Immutable compressed-sparse-row TF-IDF matrix: the vector of mentor i occupies
+     * terms/weights[offsets[i] .. offsets[i + 1]), sorted by term id.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new MentorCard[0], Map.of(), new float[0], new int[1], new int[0], new float[0]);
+
+        final MentorCard[] mentors;
+        final Map<String, Integer> vocabulary;
+        final float[] idf;
+        final int[] offsets;
+        final int[] terms;
+        final float[] weights;
+
+        Snapshot(MentorCard[] mentors, Map<String, Integer> vocabulary, float[] idf, int[] offsets, int[] terms, float[] weights) {
+            this.mentors = mentors;
+            this.vocabulary = vocabulary;
+            this.idf = idf;
+            this.offsets = offsets;
+            this.terms = terms;
+            this.weights = weights;
+        }
+
+        static Snapshot build(List<MentorCard> mentors) {
+            Map<String, Integer> vocabulary = new HashMap<>();
+            List<Map<Integer, Float>> documents = new ArrayList<>(mentors.size());
+            int[] documentFrequency = new int[16];
+            int nonZero = 0;
+
+            for (MentorCard mentor : mentors) {
+                Map<Integer, Float> frequencies = new HashMap<>();
+                addField(vocabulary, frequencies, mentor.getExpertise(), EXPERTISE_WEIGHT);
+                addField(vocabulary, frequencies, mentor.getBio(), BIO_WEIGHT);
+                if (vocabulary.size() > documentFrequency.length) {
+                    documentFrequency = Arrays.copyOf(documentFrequency, Math.max(vocabulary.size(), documentFrequency.length * 2));
+                }
+                for (Integer termId : frequencies.keySet()) {
+                    documentFrequency[termId]++;
+                }
+                nonZero += frequencies.size();
+                documents.add(frequencies);
+            }
+
+            float[] idf = new float[vocabulary.size()];
+            for (int term = 0; term < idf.length; term++) {
+                idf[term] = (float) (Math.log((mentors.size() + 1.0) / (documentFrequency[term] + 1.0)) + 1.0);
+            }
+
+            int[] offsets = new int[mentors.size() + 1];
+            int[] terms = new int[nonZero];
+            float[] weights = new float[nonZero];
+            int position = 0;
+            for (int doc = 0; doc < documents.size(); doc++) {
+                offsets[doc] = position;
+                int[] sortedTerms = documents.get(doc).keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+                float[] docWeights = new float[sortedTerms.length];
+                for (int i = 0; i < sortedTerms.length; i++) {
+                    docWeights[i] = documents.get(doc).get(sortedTerms[i]) * idf[sortedTerms[i]];
+                }
+                normalize(docWeights);
+                System.arraycopy(sortedTerms, 0, terms, position, sortedTerms.length);
+                System.arraycopy(docWeights, 0, weights, position, docWeights.length);
+                position += sortedTerms.length;
+            }
+            offsets[documents.size()] = position;
+
+            return new Snapshot(mentors.toArray(new MentorCard[0]), Map.copyOf(vocabulary), idf, offsets, terms, weights);
+        }
+
+        private static void addField(Map<String, Integer> vocabulary, Map<Integer, Float> frequencies, String text, float weight) {
+            for (String term : TextTokenizer.tokenize(text)) {
+                Integer termId = vocabulary.computeIfAbsent(term, t -> vocabulary.size());
+                frequencies.merge(termId, weight, Float::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.dto.MentorCard;
+import free_mentor.FreeMentors.dto.MentorRatingSummary;
+import free_mentor.FreeMentors.dto.MentorScoreCount;
+import free_mentor.FreeMentors.entity.MentorRating;
+import free_mentor.FreeMentors.event.MentorRatingChangedEvent;
+import free_mentor.FreeMentors.repository.MentorRatingRepository;
+import free_mentor.FreeMentors.repository.MentorshipSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/*
+ * Per-mentor review aggregates and the top-rated leaderboard.
+ *
+ * The mentor_ratings row is adjusted with an atomic upsert inside the review's transaction. After
+ * commit the row is re-read and the mentor's leaderboard entry replaced, an O(log n) operation on a
+ * skip list ordered by average score, then review count. The leaderboard is reloaded periodically
+ * so reviews handled by other nodes are reflected.
+ */
+@Service
+public class MentorRatingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MentorRatingService.class);
+
+    private static final Comparator<MentorRating> RANKING = Comparator
+            .comparingDouble(MentorRating::getAverageScore).reversed()
+            .thenComparing(Comparator.comparingLong(MentorRating::getReviewCount).reversed())
+            .thenComparing(MentorRating::getMentorId);
+
+    private final MentorRatingRepository ratingRepository;
+    private final MentorshipSessionRepository sessionRepository;
+    private final MentorDirectoryService mentorDirectoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long minReviews;
+
+    private final ConcurrentSkipListSet<MentorRating> leaderboard = new ConcurrentSkipListSet<>(RANKING);
+    private final Map<Long, MentorRating> ratings = new ConcurrentHashMap<>();
+
+    public MentorRatingService(MentorRatingRepository ratingRepository,
+                               MentorshipSessionRepository sessionRepository,
+                               MentorDirectoryService mentorDirectoryService,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${mentors.leaderboard.min-reviews:1}") long minReviews) {
+        this.ratingRepository = ratingRepository;
+        this.sessionRepository = sessionRepository;
+        this.mentorDirectoryService = mentorDirectoryService;
+        this.eventPublisher = eventPublisher;
+        this.minReviews = minReviews;
+    }
+
+    /*
+     * Records that a session review went from oldScore to newScore (either may be null).
+     * Must be called inside the transaction that persists the review.
+     */
+    public void recordReviewChange(Long mentorId, Integer oldScore, Integer newScore) {
+        long[] histogram = new long[5];
+        long count = 0;
+        long sum = 0;
+        if (oldScore != null) {
+            histogram[oldScore - 1]--;
+            count--;
+            sum -= oldScore;
+        }
+        if (newScore != null) {
+            histogram[newScore - 1]++;
+            count++;
+            sum += newScore;
+        }
+        ratingRepository.applyDelta(mentorId, count, sum,
+                histogram[0], histogram[1], histogram[2], histogram[3], histogram[4]);
+        eventPublisher.publishEvent(new MentorRatingChangedEvent(mentorId));
+    }
+
+    public Optional<MentorRating> getRating(Long mentorId) {
+        return Optional.ofNullable(ratings.get(mentorId));
+    }
+
+    public List<MentorRatingSummary> getTopMentors(int limit) {
+        List<MentorRatingSummary> top = new ArrayList<>(limit);
+        for (MentorRating rating : leaderboard) {
+            if (top.size() == limit) {
+                break;
+            }
+            Optional<MentorCard> mentor = mentorDirectoryService.findMentor(rating.getMentorId());
+            mentor.ifPresent(card -> top.add(new MentorRatingSummary(
+                    card, rating.getReviewCount(), rating.getAverageScore(), rating.getHistogram())));
+        }
+        return top;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(MentorRatingChangedEvent event) {
+        ratingRepository.findById(event.mentorId()).ifPresent(this::update);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        if (ratingRepository.count() == 0) {
+            seedFromSessions();
+        }
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${mentors.leaderboard.reload-interval-ms:60000}",
+            initialDelayString = "${mentors.leaderboard.reload-interval-ms:60000}")
+    public void reload() {
+        List<MentorRating> all = ratingRepository.findAll();
+        all.forEach(this::update);
+        log.debug("Leaderboard reloaded with {} mentors", all.size());
+    }
+
+    private synchronized void update(MentorRating rating) {
+        MentorRating previous = ratings.put(rating.getMentorId(), rating);
+        if (previous != null) {
+            leaderboard.remove(previous);
+        }
+        if (rating.getReviewCount() >= minReviews && rating.getReviewCount() > 0) {
+            leaderboard.add(rating);
+        }
+    }
+
+    // One-time seed for sessions reviewed before aggregates existed; writes absolute values so it is idempotent
+    private void seedFromSessions() {
+        Map<Long, MentorRating> seeded = new HashMap<>();
+        for (MentorScoreCount row : sessionRepository.countReviewsByMentorAndScore()) {
+            if (row.getScore() == null || row.getScore() < 1 || row.getScore() > 5) {
+                continue;
+            }
+            MentorRating rating = seeded.computeIfAbsent(row.getMentorId(),
+                    id -> MentorRating.builder().mentorId(id).build());
+            long reviews = row.getReviews();
+            rating.setReviewCount(rating.getReviewCount() + reviews);
+            rating.setScoreSum(rating.getScoreSum() + reviews * row.getScore());
+            switch (row.getScore()) {
+                case 1 -> rating.setScore1(reviews);
+                case 2 -> rating.setScore2(reviews);
+                case 3 -> rating.setScore3(reviews);
+                case 4 -> rating.setScore4(reviews);
+                default -> rating.setScore5(reviews);
+            }
+        }
+        ratingRepository.saveAll(seeded.values());
+        log.info("Seeded review aggregates for {} mentors", seeded.size());
+    }
+}
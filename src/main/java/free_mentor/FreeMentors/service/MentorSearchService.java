@@ -0,0 +1,137 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.dto.MentorCard;
+import free_mentor.FreeMentors.dto.MentorSearchHit;
+import free_mentor.FreeMentors.event.MentorChangedEvent;
+import free_mentor.FreeMentors.repository.UserRepository;
+import free_mentor.FreeMentors.utils.InvertedIndex;
+import free_mentor.FreeMentors.utils.TextTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Full-text search over mentors' expertise, occupation and bio, ranked by BM25.
+ *
+ * The index is built at startup, updated for a single mentor on MentorChangedEvent and rebuilt
+ * periodically so that promotions made on other nodes are picked up.
+ */
+@Service
+public class MentorSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(MentorSearchService.class);
+
+    // Expertise matches count more than occupation, which counts more than the free-form bio
+    private static final float EXPERTISE_WEIGHT = 2.0f;
+    private static final float OCCUPATION_WEIGHT = 1.5f;
+    private static final float BIO_WEIGHT = 1.0f;
+
+    private final UserRepository userRepository;
+    private final InvertedIndex index = new InvertedIndex();
+    private final Map<Long, MentorCard> mentors = new ConcurrentHashMap<>();
+    // Orders single-mentor updates against full rebuilds. Both query the database while holding it,
+    // which inside synchronized would pin a virtual thread to its carrier on JDK 21
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public MentorSearchService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public List<MentorSearchHit> search(String query, int limit) {
+        List<MentorSearchHit> hits = new ArrayList<>();
+        for (InvertedIndex.Hit hit : index.search(TextTokenizer.tokenize(query), limit)) {
+            MentorCard mentor = mentors.get(hit.key());
+            if (mentor != null) {
+                hits.add(new MentorSearchHit(mentor, hit.score()));
+            }
+        }
+        return hits;
+    }
+
+    @EventListener
+    public void onMentorChanged(MentorChangedEvent event) {
+        lock.lock();
+        try {
+            Optional<MentorCard> mentor = userRepository.findMentorCardById(event.userId());
+            if (mentor.isPresent()) {
+                add(mentor.get());
+            } else {
+                index.remove(event.userId());
+                mentors.remove(event.userId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        index.clear();
+        mentors.clear();
+        rebuild();
+    }
+
+    /*
+     * Re-indexes every mentor in place; stale entries of demoted users are removed.
+     */
+    @Scheduled(fixedDelayString = "${mentors.search.rebuild-interval-ms:600000}",
+            initialDelayString = "${mentors.search.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        lock.lock();
+        try {
+            Map<Long, Boolean> seen = new HashMap<>();
+            long afterId = 0;
+            while (true) {
+                List<MentorCard> batch = userRepository.findMentorCardsAfterId(afterId, Limit.of(500));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (MentorCard mentor : batch) {
+                    add(mentor);
+                    seen.put(mentor.getId(), Boolean.TRUE);
+                }
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+            for (Long id : mentors.keySet()) {
+                if (!seen.containsKey(id)) {
+                    index.remove(id);
+                    mentors.remove(id);
+                }
+            }
+            log.info("Mentor search index holds {} mentors", index.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(MentorCard mentor) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, mentor.getExpertise(), EXPERTISE_WEIGHT);
+        addField(frequencies, mentor.getOccupation(), OCCUPATION_WEIGHT);
+        addField(frequencies, mentor.getBio(), BIO_WEIGHT);
+        mentors.put(mentor.getId(), mentor);
+        index.put(mentor.getId(), frequencies);
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String term : TextTokenizer.tokenize(text)) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+    }
+}
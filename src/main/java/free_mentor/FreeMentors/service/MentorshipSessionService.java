@@ -5,16 +5,40 @@ Group 18
 
 package free_mentor.FreeMentors.service;
 
+import free_mentor.FreeMentors.dto.SessionRequestOutcome;
+import free_mentor.FreeMentors.dto.SessionUpdateResult;
+import free_mentor.FreeMentors.dto.SessionView;
+import free_mentor.FreeMentors.dto.WaitlistView;
 import free_mentor.FreeMentors.entity.MentorshipSession;
-import free_mentor.FreeMentors.entity.Role;
 import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.entity.SessionWaitlistEntry;
 import free_mentor.FreeMentors.entity.User;
+import free_mentor.FreeMentors.event.MentorCapacityFreedEvent;
+import free_mentor.FreeMentors.event.SessionChangedEvent;
+import free_mentor.FreeMentors.repository.ArchivedSessionRepository;
 import free_mentor.FreeMentors.repository.MentorshipSessionRepository;
+import free_mentor.FreeMentors.repository.SessionWaitlistRepository;
 import free_mentor.FreeMentors.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -22,28 +46,45 @@ public class MentorshipSessionService {
 
     private final MentorshipSessionRepository sessionRepository;
     private final UserRepository userRepository;
+    private final MentorDirectoryService mentorDirectoryService;
+    private final MentorRatingService mentorRatingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MentorCapacityService mentorCapacityService;
+    private final SessionWaitlistRepository waitlistRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final SessionStatsService sessionStatsService;
+    private final ArchivedSessionRepository archivedSessionRepository;
 
     /*
-     * Creates a new mentorship session.
+     * Creates a new mentorship session, or puts the request on the mentor's waitlist when the
+     * mentor already has as many open sessions as their capacity allows.
      *
      * @param menteeId  ID of the mentee requesting the session
      * @param mentorId  ID of the mentor for the session
      * @param questions Agenda or questions for the session
-     * @return The created MentorshipSession object
+     * @return The created session, or the waitlist entry and its position
      */
-    public MentorshipSession createSession(Long menteeId, Long mentorId, String questions) {
+    @Transactional
+    public SessionRequestOutcome createSession(Long menteeId, Long mentorId, String questions) {
         // Fetch mentee and mentor from the database
         User mentee = userRepository.findById(menteeId)
                 .orElseThrow(() -> new RuntimeException("Mentee not found"));
 
-        User mentor = userRepository.findById(mentorId)
-                .orElseThrow(() -> new RuntimeException("Mentor not found"));
-
-        // Ensure the mentor has the correct role
-        if (!mentor.getRole().equals(Role.MENTOR)) {
+        // Ensure the mentor has the correct role, served from the mentor cache
+        if (!mentorDirectoryService.isMentor(mentorId)) {
+            if (!userRepository.existsById(mentorId)) {
+                throw new RuntimeException("Mentor not found");
+            }
             throw new RuntimeException("User is not a mentor");
         }
 
+        // Reference only, the session needs the foreign key, not the mentor's columns
+        User mentor = userRepository.getReferenceById(mentorId);
+
+        if (!mentorCapacityService.tryAcquire(mentorId)) {
+            return new SessionRequestOutcome(null, joinWaitlist(mentee, mentor, questions));
+        }
+
         // Create and save the mentorship session
         MentorshipSession session = MentorshipSession.builder()
                 .mentor(mentor)
@@ -51,101 +92,407 @@ public class MentorshipSessionService {
                 .questions(questions)
                 .menteeEmail(mentee.getEmail())
                 .status(SessionStatus.PENDING)
+                .pendingPair(MentorshipSession.pendingPair(menteeId, mentorId))
+                .updatedAt(Instant.now())
                 .build();
 
-        return sessionRepository.save(session);
+        // On failure the transaction rolls back, returning the capacity slot as well
+        return new SessionRequestOutcome(insertPendingSession(session), null);
+    }
+
+    private MentorshipSession insertPendingSession(MentorshipSession session) {
+        MentorshipSession saved;
+        try {
+            saved = sessionRepository.saveAndFlush(session);
+        } catch (DataIntegrityViolationException e) {
+            // uk_sessions_pending_pair: a retried or repeated request for the same mentor
+            throw new RuntimeException("You already have a pending session request with this mentor");
+        }
+        sessionStatsService.recordCreated(saved.getMentor().getId());
+        eventPublisher.publishEvent(new SessionChangedEvent(SessionChangedEvent.Type.CREATED,
+                saved.getId(), saved.getMentor().getId(), saved.getMentee().getId(), saved.getStatus(), null));
+        return saved;
+    }
+
+    private WaitlistView joinWaitlist(User mentee, User mentor, String questions) {
+        if (sessionRepository.existsByPendingPair(MentorshipSession.pendingPair(mentee.getId(), mentor.getId()))) {
+            throw new RuntimeException("You already have a pending session request with this mentor");
+        }
+        mentorCapacityService.reserveWaitlistPlace(mentor.getId(), mentee.getId());
+
+        SessionWaitlistEntry entry = SessionWaitlistEntry.builder()
+                .mentor(mentor)
+                .mentee(mentee)
+                .questions(questions)
+                .menteeEmail(mentee.getEmail())
+                .createdAt(Instant.now())
+                .build();
+        try {
+            entry = waitlistRepository.saveAndFlush(entry);
+        } catch (DataIntegrityViolationException e) {
+            // uk_waitlist_mentee_mentor
+            throw new RuntimeException("You are already on this mentor's waitlist");
+        }
+        return toWaitlistView(entry);
+    }
+
+    /*
+     * The mentee's waitlisted requests with their current queue positions.
+     */
+    public List<WaitlistView> getWaitlist(Long menteeId) {
+        return waitlistRepository.findByMenteeId(menteeId).stream()
+                .map(this::toWaitlistView)
+                .toList();
+    }
+
+    /*
+     * Withdraws a waitlisted request.
+     */
+    @Transactional
+    public void leaveWaitlist(Long waitlistId, Long menteeId) {
+        SessionWaitlistEntry entry = waitlistRepository.findById(waitlistId)
+                .orElseThrow(() -> new RuntimeException("Waitlist entry not found"));
+        if (!entry.getMentee().getId().equals(menteeId)) {
+            throw new RuntimeException("Unauthorized to withdraw this request");
+        }
+        if (waitlistRepository.claim(waitlistId) == 1) {
+            mentorCapacityService.releaseWaitlistPlace(entry.getMentor().getId());
+        }
+    }
+
+    /*
+     * Promotes the mentor's waitlist in arrival order while slots are free. Runs after the
+     * transaction that finished sessions has committed; each promotion commits on its own, so one
+     * failure does not undo the others.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCapacityFreed(MentorCapacityFreedEvent event) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        while (Boolean.TRUE.equals(transaction.execute(status -> promoteNext(event.mentorId(), status)))) {
+            // keep promoting
+        }
+    }
+
+    private boolean promoteNext(Long mentorId, TransactionStatus status) {
+        List<SessionWaitlistEntry> oldest = waitlistRepository.findOldest(mentorId, Limit.of(1));
+        if (oldest.isEmpty() || !mentorCapacityService.tryAcquire(mentorId)) {
+            return false;
+        }
+
+        SessionWaitlistEntry entry = oldest.get(0);
+        if (waitlistRepository.claim(entry.getId()) == 0) {
+            // Withdrawn, or promoted by another node: undo the slot and look at the next entry
+            status.setRollbackOnly();
+            return true;
+        }
+        mentorCapacityService.releaseWaitlistPlace(mentorId);
+
+        Long menteeId = entry.getMentee().getId();
+        String pendingPair = MentorshipSession.pendingPair(menteeId, mentorId);
+        if (sessionRepository.existsByPendingPair(pendingPair)) {
+            // The mentee got a session with this mentor some other way; drop the duplicate request
+            mentorCapacityService.giveBack(mentorId);
+            return true;
+        }
+
+        insertPendingSession(MentorshipSession.builder()
+                .mentor(entry.getMentor())
+                .mentee(entry.getMentee())
+                .questions(entry.getQuestions())
+                .menteeEmail(entry.getMenteeEmail())
+                .status(SessionStatus.PENDING)
+                .pendingPair(pendingPair)
+                .updatedAt(Instant.now())
+                .build());
+        return true;
+    }
+
+    private WaitlistView toWaitlistView(SessionWaitlistEntry entry) {
+        Long mentorId = entry.getMentor().getId();
+        return new WaitlistView(entry.getId(), mentorId, entry.getMentee().getId(), entry.getQuestions(),
+                entry.getCreatedAt(), waitlistRepository.positionOf(mentorId, entry.getId()));
     }
 
     /*
      * Updates the status of an existing mentorship session.
      *
+     * The change is a single conditional UPDATE guarded on the session's mentor and on the
+     * transitions allowed by SessionStatus, so concurrent accept/reject calls cannot both apply.
+     * The session is only read again to build the response, or to explain why nothing changed.
+     *
      * @param sessionId ID of the session to update
      * @param mentorId  ID of the mentor updating the session
      * @param status    New status of the session (e.g., "APPROVED", "REJECTED")
-     * @return The updated MentorshipSession object
-     * @throws RuntimeException if the session or mentor is invalid
+     * @return The updated session
+     * @throws RuntimeException if the session or mentor is invalid, or the transition is not allowed
      */
-    public MentorshipSession updateSessionStatus(Long sessionId, Long mentorId, String status) {
-        // Fetch the session from the database
-        MentorshipSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new RuntimeException("Session not found"));
+    @Transactional
+    public SessionView updateSessionStatus(Long sessionId, Long mentorId, String status) {
+        SessionStatus sessionStatus = parseStatus(status);
+
+        int updated = sessionRepository.transitionStatus(sessionId, mentorId, sessionStatus.allowedSources(),
+                sessionStatus, Instant.now());
+
+        SessionView session = sessionRepository.findViewById(sessionId)
+                .orElseThrow(() -> sessionNotFound(sessionId));
+        if (updated == 0) {
+            // Ensure the mentor updating the session is the session's mentor
+            if (!session.getMentorId().equals(mentorId)) {
+                throw new RuntimeException("Unauthorized to update this session");
+            }
+            throw new RuntimeException("Cannot change session status from " + session.getStatus() + " to " + sessionStatus);
+        }
+        publishStatusChanged(session, sessionStatus);
+        sessionStatsService.recordStatusChange(mentorId, sessionStatus, 1);
+        if (!sessionStatus.isOpen()) {
+            mentorCapacityService.release(mentorId, 1);
+        }
+        return session;
+    }
+
+    /*
+     * Moves many of a mentor's sessions to one status in a single transaction.
+     *
+     * A plain read finds which of the sessions belong to the mentor (ownership never changes). Only
+     * those are read again with a locking read to classify them, and the eligible ones are changed
+     * by one guarded UPDATE. The locks keep concurrent requests from changing them in between, so
+     * the UPDATE changes exactly the sessions found eligible.
+     *
+     * @param mentorId   ID of the mentor updating the sessions
+     * @param sessionIds IDs of the sessions to update; duplicates are ignored
+     * @param status     New status of the sessions (e.g., "APPROVED", "REJECTED")
+     * @return One result per distinct session ID, in request order
+     */
+    @Transactional
+    public List<SessionUpdateResult> updateSessionStatuses(Long mentorId, Collection<Long> sessionIds, String status) {
+        SessionStatus sessionStatus = parseStatus(status);
+        Set<SessionStatus> sources = sessionStatus.allowedSources();
+        Set<Long> ids = new LinkedHashSet<>(sessionIds);
+
+        Map<Long, SessionView> current = new HashMap<>();
+        Set<Long> owned = new LinkedHashSet<>();
+        for (SessionView session : sessionRepository.findViewsByIdIn(ids)) {
+            if (session.getMentorId().equals(mentorId)) {
+                owned.add(session.getSessionId());
+            } else {
+                current.put(session.getSessionId(), session);
+            }
+        }
+        // An owned session missing here was archived in between and is reported as not found
+        if (!owned.isEmpty()) {
+            for (SessionView session : sessionRepository.lockViewsByMentorAndIdIn(mentorId, owned)) {
+                current.put(session.getSessionId(), session);
+            }
+        }
 
-        // Ensure the mentor updating the session is the session's mentor
-        if (!session.getMentor().getId().equals(mentorId)) {
-            throw new RuntimeException("Unauthorized to update this session");
+        Set<Long> eligible = new LinkedHashSet<>();
+        for (Long id : ids) {
+            SessionView session = current.get(id);
+            if (session != null && session.getMentorId().equals(mentorId) && sources.contains(session.getStatus())) {
+                eligible.add(id);
+            }
         }
 
+        int updated = eligible.isEmpty() ? 0 : sessionRepository.transitionStatuses(eligible, mentorId, sources, sessionStatus, Instant.now());
+        if (updated != eligible.size()) {
+            // Cannot happen while the rows are locked; fail rather than report a partial result
+            throw new IllegalStateException("Sessions changed concurrently, please retry");
+        }
+        sessionStatsService.recordStatusChange(mentorId, sessionStatus, updated);
+        if (!sessionStatus.isOpen()) {
+            mentorCapacityService.release(mentorId, updated);
+        }
+
+        List<SessionUpdateResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            SessionView session = current.get(id);
+            if (session == null) {
+                results.add(new SessionUpdateResult(id, false, null, "Session not found"));
+            } else if (!session.getMentorId().equals(mentorId)) {
+                results.add(new SessionUpdateResult(id, false, null, "Unauthorized to update this session"));
+            } else if (eligible.contains(id)) {
+                results.add(new SessionUpdateResult(id, true, sessionStatus, null));
+                publishStatusChanged(session, sessionStatus);
+            } else {
+                results.add(new SessionUpdateResult(id, false, session.getStatus(),
+                        "Cannot change session status from " + session.getStatus() + " to " + sessionStatus));
+            }
+        }
+        return results;
+    }
+
+    private void publishStatusChanged(SessionView session, SessionStatus status) {
+        // Bulk views may be read before the update, so the new status is passed in
+        eventPublisher.publishEvent(new SessionChangedEvent(SessionChangedEvent.Type.STATUS_CHANGED,
+                session.getSessionId(), session.getMentorId(), session.getMenteeId(), status, null));
+    }
+
+    // Only reached on the failure path, so the archive lookup costs nothing for live sessions
+    private RuntimeException sessionNotFound(Long sessionId) {
+        if (archivedSessionRepository.existsById(sessionId)) {
+            return new RuntimeException("Session is archived and can no longer be changed");
+        }
+        return new RuntimeException("Session not found");
+    }
+
+    private static SessionStatus parseStatus(String status) {
         // Validate the provided status
-        SessionStatus sessionStatus;
+        if (status == null) {
+            throw new RuntimeException("Invalid session status");
+        }
         try {
-            sessionStatus = SessionStatus.valueOf(status.toUpperCase());
+            return SessionStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid session status");
         }
-
-        // Update the session's status
-        session.setStatus(sessionStatus);
-        return sessionRepository.save(session);
     }
 
     /*
-     Fetches all mentorship sessions for a specific mentee.
+     Fetches one keyset page of a mentee's sessions.
 
      @param menteeId ID of the mentee
-     @return List of MentorshipSession objects created by the mentee
+     @param status   Only sessions in this status, or null for all
+     @param afterId  Return sessions with an id greater than this (0 for the first page)
+     @param limit    Maximum number of sessions to return
+     @param history  Include archived sessions; otherwise only the live table is read
+     @return Listing views of the sessions created by the mentee, in id order
      */
-    public List<MentorshipSession> getSessionsByMenteeId(Long menteeId) {
-        // Validate mentee existence
-        userRepository.findById(menteeId)
-                .orElseThrow(() -> new RuntimeException("Mentee not found"));
+    public List<SessionView> getSessionsByMenteeId(Long menteeId, SessionStatus status, long afterId, int limit,
+                                                   boolean history) {
+        List<SessionView> sessions = status == null
+                ? sessionRepository.findViewsByMenteeId(menteeId, afterId, Limit.of(limit))
+                : sessionRepository.findViewsByMenteeIdAndStatus(menteeId, status, afterId, Limit.of(limit));
+        if (history) {
+            sessions = mergeById(sessions, status == null
+                    ? archivedSessionRepository.findViewsByMenteeId(menteeId, afterId, Limit.of(limit))
+                    : archivedSessionRepository.findViewsByMenteeIdAndStatus(menteeId, status, afterId, Limit.of(limit)),
+                    limit);
+        }
 
-        // Fetch sessions
-        return sessionRepository.findByMenteeId(menteeId);
+        // Validate mentee existence only when there is nothing to show
+        if (sessions.isEmpty() && !userRepository.existsById(menteeId)) {
+            throw new RuntimeException("Mentee not found");
+        }
+        return sessions;
     }
 
     /**
-     * Fetches all mentorship sessions for a specific mentor.
+     * Fetches one keyset page of a mentor's sessions.
      *
      * @param mentorId ID of the mentor
-     * @return List of MentorshipSession objects requested against the mentor
+     * @param status   Only sessions in this status, or null for all
+     * @param afterId  Return sessions with an id greater than this (0 for the first page)
+     * @param limit    Maximum number of sessions to return
+     * @param history  Include archived sessions; otherwise only the live table is read
+     * @return Listing views of the sessions requested against the mentor, in id order
      */
-    public List<MentorshipSession> getSessionsByMentorId(Long mentorId) {
-        // Validate mentor existence
-        userRepository.findById(mentorId)
-                .orElseThrow(() -> new RuntimeException("Mentor not found"));
+    public List<SessionView> getSessionsByMentorId(Long mentorId, SessionStatus status, long afterId, int limit,
+                                                   boolean history) {
+        List<SessionView> sessions = status == null
+                ? sessionRepository.findViewsByMentorId(mentorId, afterId, Limit.of(limit))
+                : sessionRepository.findViewsByMentorIdAndStatus(mentorId, status, afterId, Limit.of(limit));
+        if (history) {
+            sessions = mergeById(sessions, status == null
+                    ? archivedSessionRepository.findViewsByMentorId(mentorId, afterId, Limit.of(limit))
+                    : archivedSessionRepository.findViewsByMentorIdAndStatus(mentorId, status, afterId, Limit.of(limit)),
+                    limit);
+        }
 
-        // Fetch sessions
-        return sessionRepository.findByMentorId(mentorId);
+        // Validate mentor existence only when there is nothing to show
+        if (sessions.isEmpty() && !userRepository.existsById(mentorId)) {
+            throw new RuntimeException("Mentor not found");
+        }
+        return sessions;
     }
 
+    /*
+     * Total number of sessions matching a listing, across all of its pages.
+     */
+    public long countSessionsByMentorId(Long mentorId, SessionStatus status, boolean history) {
+        long live = status == null
+                ? sessionRepository.countByMentorId(mentorId)
+                : sessionRepository.countByMentorIdAndStatus(mentorId, status);
+        if (!history) {
+            return live;
+        }
+        return live + (status == null
+                ? archivedSessionRepository.countByMentorId(mentorId)
+                : archivedSessionRepository.countByMentorIdAndStatus(mentorId, status));
+    }
 
+    public long countSessionsByMenteeId(Long menteeId, SessionStatus status, boolean history) {
+        long live = status == null
+                ? sessionRepository.countByMenteeId(menteeId)
+                : sessionRepository.countByMenteeIdAndStatus(menteeId, status);
+        if (!history) {
+            return live;
+        }
+        return live + (status == null
+                ? archivedSessionRepository.countByMenteeId(menteeId)
+                : archivedSessionRepository.countByMenteeIdAndStatus(menteeId, status));
+    }
+
+    /*
+     * Merges two id-ordered pages (live and archived; a session is in exactly one table) into
+     * the first limit sessions by id.
+     */
+    private static List<SessionView> mergeById(List<SessionView> live, List<SessionView> archived, int limit) {
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<SessionView> merged = new ArrayList<>(Math.min(limit, live.size() + archived.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < live.size() || j < archived.size())) {
+            if (j == archived.size()
+                    || (i < live.size() && live.get(i).getSessionId() < archived.get(j).getSessionId())) {
+                merged.add(live.get(i++));
+            } else {
+                merged.add(archived.get(j++));
+            }
+        }
+        return merged;
+    }
+
+
+    @Transactional
     public MentorshipSession reviewMentor(Long sessionId, Long menteeId, Integer score, String remark) {
-        // Fetch the session from the database
-        MentorshipSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new RuntimeException("Session not found"));
+        // Fetch the session with its mentee, whose name goes into the review response
+        MentorshipSession session = sessionRepository.findWithMenteeById(sessionId)
+                .orElseThrow(() -> sessionNotFound(sessionId));
 
         // Check if the requester is the session's mentee
         if (!session.getMentee().getId().equals(menteeId)) {
             throw new RuntimeException("Unauthorized to review this session");
         }
 
-        // Check if the session has been completed
-        if (!(session.getStatus().equals(SessionStatus.REJECTED) || session.getStatus().equals(SessionStatus.APPROVED)))  {
+        // Check if the session has been answered (approved, rejected or completed)
+        if (!session.getStatus().isReviewable()) {
             throw new RuntimeException("Cannot review a session that is not approved or completed");
         }
 
         // Add review details
+        Integer previousScore = session.getScore();
         session.setScore(score);
         session.setRemark(remark);
-
-        return sessionRepository.save(session);
+        session.setUpdatedAt(Instant.now());
+
+        MentorshipSession saved = sessionRepository.save(session);
+        // Keep the mentor's rating aggregate in step, in the same transaction
+        mentorRatingService.recordReviewChange(session.getMentor().getId(), previousScore, score);
+        sessionStatsService.recordReviewChange(session.getMentor().getId(), previousScore, score);
+        eventPublisher.publishEvent(new SessionChangedEvent(SessionChangedEvent.Type.REVIEWED,
+                sessionId, session.getMentor().getId(), menteeId, session.getStatus(), score));
+        return saved;
     }
 
 
+    @Transactional
     public void deleteReview(Long sessionId, Long menteeId) {
         // Fetch the session
         MentorshipSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new RuntimeException("Session not found"));
+                .orElseThrow(() -> sessionNotFound(sessionId));
 
         // Validate that the request is made by the mentee
         if (!session.getMentee().getId().equals(menteeId)) {
@@ -158,11 +505,17 @@ public class MentorshipSessionService {
         }
 
         // Remove the review fields
+        Integer previousScore = session.getScore();
         session.setScore(null);
         session.setRemark(null);
+        session.setUpdatedAt(Instant.now());
 
         // Save the updated session
         sessionRepository.save(session);
+        mentorRatingService.recordReviewChange(session.getMentor().getId(), previousScore, null);
+        sessionStatsService.recordReviewChange(session.getMentor().getId(), previousScore, null);
+        eventPublisher.publishEvent(new SessionChangedEvent(SessionChangedEvent.Type.REVIEW_DELETED,
+                sessionId, session.getMentor().getId(), menteeId, session.getStatus(), null));
     }
 
 }
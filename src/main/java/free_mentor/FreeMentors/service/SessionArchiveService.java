@@ -0,0 +1,166 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.entity.MentorshipSession;
+import free_mentor.FreeMentors.entity.ProjectionCheckpoint;
+import free_mentor.FreeMentors.repository.MentorshipSessionRepository;
+import free_mentor.FreeMentors.repository.ProjectionCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Moves cold sessions from mentorship_session into mentorship_session_archive, so the live table
+ * and its listing indexes hold little more than open and recently finished sessions. Only
+ * rejected and completed sessions are archived; an approved session stays live until the mentor
+ * completes it, so it can still be completed and reviewed and keeps its capacity slot.
+ *
+ * Each batch is one transaction. It locks the sessions that are still cold, copies them to the
+ * archive, deletes them from the live table and advances the scan cursor. A crash therefore
+ * loses at most the batch in flight, and the next run resumes from the last committed cursor.
+ * The cursor lives in a checkpoint row whose lock also keeps two nodes from archiving at once.
+ * Batches are bounded and separated by a pause, so archiving never holds many locks or saturates
+ * the database.
+ *
+ * Sessions written before updated_at existed have no age. Each run first stamps them with the
+ * current time, in batches, so they become eligible once the retention period has passed.
+ */
+@Service
+public class SessionArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionArchiveService.class);
+
+    static final String ARCHIVER = "session-archiver";
+
+    private final MentorshipSessionRepository sessionRepository;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMillis;
+    private final Duration reviewedGrace;
+    private final Duration retention;
+
+    public SessionArchiveService(MentorshipSessionRepository sessionRepository,
+                                 ProjectionCheckpointRepository checkpointRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${sessions.archive.enabled:true}") boolean enabled,
+                                 @Value("${sessions.archive.batch-size:500}") int batchSize,
+                                 @Value("${sessions.archive.max-batches-per-run:200}") int maxBatchesPerRun,
+                                 @Value("${sessions.archive.pause-ms:200}") long pauseMillis,
+                                 @Value("${sessions.archive.reviewed-grace-hours:24}") long reviewedGraceHours,
+                                 @Value("${sessions.archive.retention-days:90}") long retentionDays) {
+        this.sessionRepository = sessionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMillis = pauseMillis;
+        this.reviewedGrace = Duration.ofHours(reviewedGraceHours);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        transaction.executeWithoutResult(status -> checkpointRepository.ensureExists(ARCHIVER));
+    }
+
+    /*
+     * Archives up to maxBatchesPerRun batches, continuing from where the last run stopped.
+     *
+     * @return The number of sessions archived
+     */
+    @Scheduled(fixedDelayString = "${sessions.archive.interval-ms:3600000}",
+            initialDelayString = "${sessions.archive.interval-ms:3600000}")
+    public long archive() {
+        if (!enabled) {
+            return 0;
+        }
+        stampLegacySessions();
+        long archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transaction.execute(status -> archiveBatch());
+            if (moved == null || moved < 0) {
+                break;
+            }
+            archived += moved;
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} sessions", archived);
+        }
+        return archived;
+    }
+
+    private void stampLegacySessions() {
+        Instant now = Instant.now();
+        long stamped = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer changed = transaction.execute(status -> sessionRepository.stampMissingUpdatedAt(now, batchSize));
+            if (changed == null || changed == 0) {
+                break;
+            }
+            stamped += changed;
+        }
+        if (stamped > 0) {
+            log.info("Started the archive clock for {} sessions without updated_at", stamped);
+        }
+    }
+
+    /*
+     * @return The number of sessions moved, or -1 when the scan reached the end of the table
+     */
+    private int archiveBatch() {
+        Optional<ProjectionCheckpoint> locked = checkpointRepository.findForUpdate(ARCHIVER);
+        if (locked.isEmpty()) {
+            return -1;
+        }
+        ProjectionCheckpoint cursor = locked.get();
+
+        Instant now = Instant.now();
+        Instant reviewedCutoff = now.minus(reviewedGrace);
+        Instant retentionCutoff = now.minus(retention);
+        List<Long> candidates = sessionRepository.findColdIds(cursor.getPosition(), reviewedCutoff, retentionCutoff,
+                Limit.of(batchSize));
+        if (candidates.isEmpty()) {
+            // End of this pass; the next run starts again from the beginning
+            cursor.setPosition(0);
+            cursor.setUpdatedAt(now);
+            return -1;
+        }
+
+        // Re-checked under lock: a session may have changed since it was found
+        List<MentorshipSession> sessions = sessionRepository.lockColdByIds(candidates, reviewedCutoff, retentionCutoff);
+        if (!sessions.isEmpty()) {
+            List<Long> ids = sessions.stream().map(MentorshipSession::getId).toList();
+            sessionRepository.copyToArchive(ids, now);
+            sessionRepository.deleteByIdIn(ids);
+        }
+
+        cursor.setPosition(candidates.get(candidates.size() - 1));
+        cursor.setUpdatedAt(now);
+        return sessions.size();
+    }
+}
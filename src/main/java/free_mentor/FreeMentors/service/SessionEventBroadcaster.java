@@ -0,0 +1,325 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import free_mentor.FreeMentors.event.SessionChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Pushes session changes to the participants' open Server-Sent Events connections.
+ *
+ * Publishing never blocks: each event is serialized once after the transaction commits, offered to
+ * the bounded buffer of every connection of the mentor and mentee, and written by a small sender
+ * pool. A connection whose buffer is full is closed; the client reconnects with Last-Event-ID and
+ * is replayed from a ring of recent events, or told to resync when it has fallen out of the ring.
+ * Event ids carry this process's start time, so ids from before a restart also lead to a resync.
+ *
+ * Events only reach connections held by the node that handled the change, so multi-node deployments
+ * need sticky routing per user for this endpoint.
+ */
+@Service
+public class SessionEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionEventBroadcaster.class);
+
+    public static final String RESYNC_EVENT = "resync";
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sender;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final long timeoutMillis;
+    private final Counter droppedCounter;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    // Replay ring, guarded by this; publishing is rare compared to connection churn
+    private final StoredEvent[] recent;
+    private long sequence;
+
+    public SessionEventBroadcaster(ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${sessions.stream.buffer-size:64}") int bufferSize,
+                                   @Value("${sessions.stream.replay-size:10000}") int replaySize,
+                                   @Value("${sessions.stream.sender-threads:4}") int senderThreads,
+                                   @Value("${sessions.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                   @Value("${sessions.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.timeoutMillis = timeoutMillis;
+        this.recent = new StoredEvent[replaySize];
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "session-sse-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("sessions.stream.connections", connections, AtomicInteger::get)
+                .description("Open session event streams")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("sessions.stream.dropped")
+                .description("Streams closed because the client could not keep up")
+                .register(meterRegistry);
+    }
+
+    /*
+     * Opens a stream for the user, first replaying the events after lastEventId that concern them.
+     *
+     * The replay is read and the subscriber registered under the ring's lock, so every event is
+     * either in the replay or delivered live, and the replay's last id becomes the subscriber's
+     * high-water mark so a live delivery of a replayed event is skipped. The subscriber's own lock
+     * is held until the replay is queued, which keeps newer live events from overtaking it.
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        boolean replay = lastEventId != null && !lastEventId.isBlank();
+        long after = replay ? parseSequence(lastEventId) : -1;
+        List<Subscriber> evicted = new ArrayList<>();
+        synchronized (subscriber) {
+            List<StoredEvent> missed = new ArrayList<>();
+            boolean complete;
+            long current;
+            synchronized (this) {
+                current = sequence;
+                long oldest = Math.max(1, sequence - recent.length + 1);
+                complete = after >= 0 && after + 1 >= oldest && after <= sequence;
+                if (replay && complete) {
+                    for (long seq = after + 1; seq <= sequence; seq++) {
+                        StoredEvent stored = recent[(int) (seq % recent.length)];
+                        if (stored.concerns(userId)) {
+                            missed.add(stored);
+                        }
+                    }
+                }
+                subscriber.deliveredThrough = current;
+                register(subscriber, evicted);
+            }
+
+            if (replay && complete) {
+                missed.forEach(stored -> subscriber.enqueue(toSse(stored)));
+            } else if (replay) {
+                // The gap is no longer in memory: the client should reload its session list
+                subscriber.enqueue(SseEmitter.event().id(eventId(current)).name(RESYNC_EVENT).data("{}"));
+            }
+        }
+        evicted.forEach(Subscriber::close);
+        return emitter;
+    }
+
+    private void register(Subscriber subscriber, List<Subscriber> evicted) {
+        subscribers.compute(subscriber.userId, (id, userSubscribers) -> {
+            if (userSubscribers == null) {
+                userSubscribers = new CopyOnWriteArrayList<>();
+            }
+            userSubscribers.add(subscriber);
+            // Too many tabs or leaked connections for one user: the oldest ones give way
+            for (int i = 0; i < userSubscribers.size() - maxConnectionsPerUser; i++) {
+                evicted.add(userSubscribers.get(i));
+            }
+            return userSubscribers;
+        });
+        connections.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {}", event, e);
+            return;
+        }
+
+        StoredEvent stored;
+        synchronized (this) {
+            stored = new StoredEvent(++sequence, event, payload);
+            recent[(int) (stored.sequence % recent.length)] = stored;
+        }
+
+        deliver(event.mentorId(), stored);
+        if (!Objects.equals(event.menteeId(), event.mentorId())) {
+            deliver(event.menteeId(), stored);
+        }
+    }
+
+    /*
+     * Comment lines keep idle connections open through proxies and reveal dead ones.
+     */
+    @Scheduled(fixedDelayString = "${sessions.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (List<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private void deliver(Long userId, StoredEvent stored) {
+        List<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.deliver(stored);
+        }
+    }
+
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private SseEmitter.SseEventBuilder toSse(StoredEvent stored) {
+        return SseEmitter.event()
+                .id(eventId(stored.sequence))
+                .name(stored.event.type().name().toLowerCase())
+                .data(stored.payload);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::close));
+    }
+
+    private record StoredEvent(long sequence, SessionChangedEvent event, String payload) {
+        boolean concerns(Long userId) {
+            return userId.equals(event.mentorId()) || userId.equals(event.menteeId());
+        }
+    }
+
+    /*
+     * One open stream. Events are queued without blocking and written by at most one sender
+     * thread at a time, which SseEmitter requires.
+     */
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Highest event sequence queued or replayed; guarded by this
+        private long deliveredThrough;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        synchronized void deliver(StoredEvent stored) {
+            if (stored.sequence > deliveredThrough) {
+                deliveredThrough = stored.sequence;
+                enqueue(toSse(stored));
+            }
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Slow consumer: drop the connection rather than buffer without bound
+                droppedCounter.increment();
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            // An event may have been queued after the last poll but before the flag was cleared
+            if (!closed.get() && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                queue.clear();
+                remove();
+                emitter.complete();
+            }
+        }
+
+        void remove() {
+            closed.set(true);
+            subscribers.computeIfPresent(userId, (id, userSubscribers) -> {
+                if (userSubscribers.remove(this)) {
+                    connections.decrementAndGet();
+                }
+                return userSubscribers.isEmpty() ? null : userSubscribers;
+            });
+        }
+    }
+}
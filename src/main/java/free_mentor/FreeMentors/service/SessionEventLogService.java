@@ -0,0 +1,77 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.entity.SessionEventLogEntry;
+import free_mentor.FreeMentors.event.SessionChangedEvent;
+import free_mentor.FreeMentors.repository.SessionEventLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/*
+ * Append-only history of session changes.
+ *
+ * Every SessionChangedEvent is inserted into session_event_log synchronously, inside the
+ * transaction that made the change, so the log holds exactly the committed changes. Writers
+ * pay one insert; SessionProjectionService builds the read models from the log afterwards.
+ */
+@Service
+public class SessionEventLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionEventLogService.class);
+
+    private final SessionEventLogRepository logRepository;
+
+    public SessionEventLogService(SessionEventLogRepository logRepository) {
+        this.logRepository = logRepository;
+    }
+
+    @EventListener
+    public void onSessionChanged(SessionChangedEvent event) {
+        logRepository.save(SessionEventLogEntry.builder()
+                .type(event.type())
+                .sessionId(event.sessionId())
+                .mentorId(event.mentorId())
+                .menteeId(event.menteeId())
+                .status(event.status())
+                .score(event.score())
+                .occurredAt(Instant.now())
+                .build());
+    }
+
+    /*
+     * Gives sessions written before the log existed a starting entry, so projections cover them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int added = logRepository.backfillFromSessions();
+        if (added > 0) {
+            log.info("Added {} existing sessions to the session event log", added);
+        }
+    }
+
+    /*
+     * The session's changes in the order they happened. Only its participants and admins may read it.
+     */
+    public List<SessionEventLogEntry> getHistory(Long sessionId, Long userId, boolean admin) {
+        List<SessionEventLogEntry> history = logRepository.findBySessionIdOrderByIdAsc(sessionId);
+        if (history.isEmpty()) {
+            throw new RuntimeException("Session not found");
+        }
+        SessionEventLogEntry first = history.get(0);
+        if (!admin && !userId.equals(first.getMentorId()) && !userId.equals(first.getMenteeId())) {
+            throw new RuntimeException("Unauthorized to view this session");
+        }
+        return history;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import free_mentor.FreeMentors.entity.ArchivedSession;
+import free_mentor.FreeMentors.entity.MentorshipSession;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.repository.ArchivedSessionRepository;
+import free_mentor.FreeMentors.repository.MentorshipSessionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/*
+ * Streams mentorship sessions for reporting as NDJSON or CSV.
+ *
+ * Rows are read through a database cursor and written to the response as they arrive, and the
+ * persistence context is cleared every CLEAR_INTERVAL rows, so memory use does not depend on how
+ * many rows are exported.
+ */
+@Service
+public class SessionExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    private static final String[] COLUMNS =
+            {"id", "mentorId", "menteeId", "menteeEmail", "status", "score", "remark", "questions"};
+    private static final int CLEAR_INTERVAL = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MentorshipSessionRepository sessionRepository;
+    private final ArchivedSessionRepository archivedSessionRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public SessionExportService(MentorshipSessionRepository sessionRepository,
+                                ArchivedSessionRepository archivedSessionRepository,
+                                ObjectMapper objectMapper) {
+        this.sessionRepository = sessionRepository;
+        this.archivedSessionRepository = archivedSessionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /*
+     * Writes every session with status (null for any) and an id in [fromId, toId] to out.
+     * With history, archived sessions follow the live ones.
+     *
+     * @return The number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, Format format, SessionStatus status, long fromId, long toId,
+                       boolean history) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == Format.CSV) {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        long count = 0;
+        try (Stream<MentorshipSession> sessions = sessionRepository.streamForExport(status, fromId, toId)) {
+            for (MentorshipSession session : (Iterable<MentorshipSession>) sessions::iterator) {
+                writeRow(writer, format, new Object[]{
+                        session.getId(),
+                        // Lazy references: the ids come from the session row, the users are not loaded
+                        session.getMentor().getId(),
+                        session.getMentee().getId(),
+                        session.getMenteeEmail(),
+                        session.getStatus(),
+                        session.getScore(),
+                        session.getRemark(),
+                        session.getQuestions()
+                });
+                clearEvery(++count);
+            }
+        }
+        if (history) {
+            try (Stream<ArchivedSession> sessions = archivedSessionRepository.streamForExport(status, fromId, toId)) {
+                for (ArchivedSession session : (Iterable<ArchivedSession>) sessions::iterator) {
+                    writeRow(writer, format, new Object[]{
+                            session.getId(),
+                            session.getMentorId(),
+                            session.getMenteeId(),
+                            session.getMenteeEmail(),
+                            session.getStatus(),
+                            session.getScore(),
+                            session.getRemark(),
+                            session.getQuestions()
+                    });
+                    clearEvery(++count);
+                }
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    // Drop exported entities so the persistence context does not grow with the export
+    private void clearEvery(long count) {
+        if (count % CLEAR_INTERVAL == 0) {
+            entityManager.clear();
+        }
+    }
+
+    private void writeRow(Writer writer, Format format, Object[] values) throws IOException {
+        if (format == Format.CSV) {
+            writeCsvRow(writer, values);
+        } else {
+            writeJsonRow(writer, values);
+        }
+    }
+
+    private void writeJsonRow(Writer writer, Object[] values) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            row.put(COLUMNS[i], values[i]);
+        }
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+
+    private static void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvField(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvField(String value) {
+        // Free text is mentee-supplied; keep spreadsheets from evaluating it as a formula
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
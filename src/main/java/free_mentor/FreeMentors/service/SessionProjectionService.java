@@ -0,0 +1,311 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.dto.SessionStatusCount;
+import free_mentor.FreeMentors.entity.MentorSessionStats;
+import free_mentor.FreeMentors.entity.ProjectionCheckpoint;
+import free_mentor.FreeMentors.entity.SessionEventLogEntry;
+import free_mentor.FreeMentors.entity.SessionProjectionGap;
+import free_mentor.FreeMentors.entity.SessionReadModel;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.repository.MentorSessionStatsRepository;
+import free_mentor.FreeMentors.repository.ProjectionCheckpointRepository;
+import free_mentor.FreeMentors.repository.SessionEventLogRepository;
+import free_mentor.FreeMentors.repository.SessionProjectionGapRepository;
+import free_mentor.FreeMentors.repository.SessionReadModelRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/*
+ * Builds dashboard read models from the session event log: one row per session, listed per mentor
+ * and per mentee, and per-mentor counts by status.
+ *
+ * A scheduled projector reads the log after its checkpoint in batches. Each batch is applied and
+ * the checkpoint advanced in one transaction that holds the checkpoint row lock, so nodes take
+ * turns and a crash resumes from the last committed batch. Session rows remember the last entry
+ * applied to them, which makes re-reading the log (replay) safe.
+ *
+ * Log ids are assigned at insert but become visible at commit, so a lower id can appear after a
+ * higher one. The projector stops at such a gap until the entry after it is gapTimeout old, then
+ * moves past it and records the missing ids. Every poll applies recorded ids whose entries have
+ * appeared since (a long transaction or lock wait committed late); an id still missing after
+ * gapRetention is taken to be a rolled-back insert and forgotten.
+ */
+@Service
+public class SessionProjectionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionProjectionService.class);
+
+    static final String PROJECTION = "session-read-models";
+
+    private final SessionEventLogRepository logRepository;
+    private final SessionReadModelRepository readModelRepository;
+    private final MentorSessionStatsRepository statsRepository;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final SessionProjectionGapRepository gapRepository;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final long gapTimeoutMillis;
+    private final long gapRetentionMillis;
+
+    private final AtomicLong position = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public SessionProjectionService(SessionEventLogRepository logRepository,
+                                    SessionReadModelRepository readModelRepository,
+                                    MentorSessionStatsRepository statsRepository,
+                                    ProjectionCheckpointRepository checkpointRepository,
+                                    SessionProjectionGapRepository gapRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${sessions.projection.batch-size:500}") int batchSize,
+                                    @Value("${sessions.projection.gap-timeout-ms:10000}") long gapTimeoutMillis,
+                                    @Value("${sessions.projection.gap-retention-ms:3600000}") long gapRetentionMillis) {
+        this.logRepository = logRepository;
+        this.readModelRepository = readModelRepository;
+        this.statsRepository = statsRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.gapRepository = gapRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.gapRetentionMillis = gapRetentionMillis;
+
+        Gauge.builder("sessions.projection.lag", this, SessionProjectionService::getLag)
+                .description("Session event log entries not yet applied to the read models")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        transaction.executeWithoutResult(status -> checkpointRepository.ensureExists(PROJECTION));
+    }
+
+    /*
+     * Applies all visible log entries after the checkpoint, then the skipped ones that have appeared.
+     */
+    @Scheduled(fixedDelayString = "${sessions.projection.poll-interval-ms:1000}",
+            initialDelayString = "${sessions.projection.poll-interval-ms:1000}")
+    public void project() {
+        while (Boolean.TRUE.equals(transaction.execute(status -> projectBatch()))) {
+            // keep going until caught up
+        }
+        transaction.executeWithoutResult(status -> applySkipped());
+        head.set(logRepository.headPosition());
+    }
+
+    /*
+     * @return true if a full batch was applied and more entries may be waiting
+     */
+    private boolean projectBatch() {
+        Optional<ProjectionCheckpoint> locked = checkpointRepository.findForUpdate(PROJECTION);
+        if (locked.isEmpty()) {
+            return false;
+        }
+        ProjectionCheckpoint checkpoint = locked.get();
+        long from = checkpoint.getPosition();
+        position.set(from);
+
+        List<SessionEventLogEntry> entries = logRepository.findByIdGreaterThanOrderByIdAsc(from, Limit.of(batchSize));
+        if (entries.isEmpty()) {
+            return false;
+        }
+
+        Instant now = Instant.now();
+        Instant gapCutoff = now.minusMillis(gapTimeoutMillis);
+        long applied = from;
+        List<SessionEventLogEntry> batch = new ArrayList<>();
+        List<SessionProjectionGap> skipped = new ArrayList<>();
+        for (SessionEventLogEntry entry : entries) {
+            if (entry.getId() != applied + 1) {
+                if (entry.getOccurredAt().isAfter(gapCutoff)) {
+                    // A lower id is not visible yet; its transaction may still commit
+                    break;
+                }
+                // Move on, but remember the missing ids in case their transactions commit later
+                for (long id = applied + 1; id < entry.getId(); id++) {
+                    skipped.add(new SessionProjectionGap(id, now));
+                }
+            }
+            batch.add(entry);
+            applied = entry.getId();
+        }
+        if (applied == from) {
+            return false;
+        }
+
+        applyAll(batch);
+        gapRepository.saveAll(skipped);
+        checkpoint.setPosition(applied);
+        checkpoint.setUpdatedAt(now);
+        position.set(applied);
+        return applied == entries.get(entries.size() - 1).getId() && entries.size() == batchSize;
+    }
+
+    /*
+     * Applies skipped entries that have committed since, and forgets gaps older than gapRetention.
+     * Session rows ignore an entry older than the last one applied to them, whose state is newer.
+     */
+    private void applySkipped() {
+        if (checkpointRepository.findForUpdate(PROJECTION).isEmpty()) {
+            return;
+        }
+        gapRepository.deleteSkippedBefore(Instant.now().minusMillis(gapRetentionMillis));
+        List<SessionEventLogEntry> late = logRepository.findSkipped(Limit.of(batchSize));
+        if (late.isEmpty()) {
+            return;
+        }
+        applyAll(late);
+        gapRepository.deleteAllByIdInBatch(late.stream().map(SessionEventLogEntry::getId).toList());
+        log.info("Applied {} session event log entries that committed after the projector moved past them", late.size());
+    }
+
+    private void applyAll(List<SessionEventLogEntry> entries) {
+        Map<Long, SessionReadModel> rows = readModelRepository.findAllById(
+                        entries.stream().map(SessionEventLogEntry::getSessionId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(SessionReadModel::getSessionId, row -> row));
+        List<SessionReadModel> created = new ArrayList<>();
+        Map<Long, long[]> deltas = new HashMap<>();
+        for (SessionEventLogEntry entry : entries) {
+            apply(entry, rows, created, deltas);
+        }
+
+        readModelRepository.saveAll(created);
+        deltas.forEach((mentorId, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0 || delta[2] != 0 || delta[3] != 0 || delta[4] != 0 || delta[5] != 0) {
+                statsRepository.applyDelta(mentorId, delta[0], delta[1], delta[2], delta[3], delta[4], delta[5]);
+            }
+        });
+    }
+
+    private void apply(SessionEventLogEntry entry, Map<Long, SessionReadModel> rows,
+                       List<SessionReadModel> created, Map<Long, long[]> deltas) {
+        SessionReadModel row = rows.get(entry.getSessionId());
+        if (row != null && row.getLastEventId() >= entry.getId()) {
+            // Already applied (the log is being replayed), or superseded by a later entry
+            return;
+        }
+
+        long[] delta = deltas.computeIfAbsent(entry.getMentorId(), id -> new long[6]);
+        if (row == null) {
+            row = SessionReadModel.builder()
+                    .sessionId(entry.getSessionId())
+                    .mentorId(entry.getMentorId())
+                    .menteeId(entry.getMenteeId())
+                    .createdAt(entry.getOccurredAt())
+                    .build();
+            rows.put(row.getSessionId(), row);
+            created.add(row);
+        } else {
+            count(delta, row.getStatus(), row.getScore(), -1);
+        }
+
+        row.setStatus(entry.getStatus());
+        switch (entry.getType()) {
+            // Status changes do not touch the review
+            case STATUS_CHANGED -> { }
+            default -> row.setScore(entry.getScore());
+        }
+        row.setUpdatedAt(entry.getOccurredAt());
+        row.setLastEventId(entry.getId());
+        count(delta, row.getStatus(), row.getScore(), 1);
+    }
+
+    private static void count(long[] delta, SessionStatus status, Integer score, int sign) {
+        delta[switch (status) {
+            case PENDING -> 0;
+            case APPROVED -> 1;
+            case ACCEPTED -> 2;
+            case REJECTED -> 3;
+            case COMPLETED -> 4;
+        }] += sign;
+        if (score != null) {
+            delta[5] += sign;
+        }
+    }
+
+    /*
+     * Re-reads the log from fromId. Starting at 0 drops the read models and rebuilds them;
+     * a later start re-applies only what the session rows have not seen.
+     */
+    public void replay(long fromId) {
+        if (fromId < 0) {
+            throw new IllegalArgumentException("from must not be negative");
+        }
+        transaction.executeWithoutResult(status -> {
+            ProjectionCheckpoint checkpoint = checkpointRepository.findForUpdate(PROJECTION)
+                    .orElseThrow(() -> new IllegalStateException("Projection checkpoint is missing"));
+            if (fromId == 0) {
+                readModelRepository.deleteAllRows();
+                statsRepository.deleteAllRows();
+            }
+            // The replay reads these ids again
+            gapRepository.deleteByEntryIdAfter(fromId);
+            checkpoint.setPosition(fromId);
+            checkpoint.setUpdatedAt(Instant.now());
+        });
+        log.info("Replaying the session event log from id {}", fromId);
+        position.set(fromId);
+        project();
+    }
+
+    public long getLag() {
+        return Math.max(0, head.get() - position.get());
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("projection", PROJECTION);
+        status.put("position", position.get());
+        status.put("head", head.get());
+        status.put("lag", getLag());
+        return status;
+    }
+
+    public List<SessionReadModel> getRecentSessions(Long userId, boolean asMentor, int limit) {
+        return asMentor
+                ? readModelRepository.findByMentorIdOrderBySessionIdDesc(userId, Limit.of(limit))
+                : readModelRepository.findByMenteeIdOrderBySessionIdDesc(userId, Limit.of(limit));
+    }
+
+    public MentorSessionStats getMentorStats(Long mentorId) {
+        return statsRepository.findById(mentorId)
+                .orElseGet(() -> MentorSessionStats.builder().mentorId(mentorId).build());
+    }
+
+    public Map<SessionStatus, Long> getMenteeCounts(Long menteeId) {
+        Map<SessionStatus, Long> counts = new EnumMap<>(SessionStatus.class);
+        for (SessionStatus status : SessionStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (SessionStatusCount count : readModelRepository.countByMenteeIdGroupByStatus(menteeId)) {
+            counts.put(count.getStatus(), count.getSessions());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.dto.MentorStatusCount;
+import free_mentor.FreeMentors.dto.SessionCounts;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.event.SessionCountsChangedEvent;
+import free_mentor.FreeMentors.repository.ArchivedSessionRepository;
+import free_mentor.FreeMentors.repository.MentorshipSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Live session counts per mentor and platform-wide, kept in memory.
+ *
+ * MentorshipSessionService records each change inside its transaction; the delta is applied after
+ * commit, so rolled-back changes are never counted. Counters are LongAdders, so concurrent updates
+ * do not contend on one cache line, and a read sums a few cells without touching the database.
+ *
+ * The counters cover live and archived sessions. They are rebuilt from the database at startup
+ * and compared with it periodically, which also picks up changes made on other nodes. A mentor
+ * whose counters moved while the comparison query ran is left for the next round, since the
+ * query may or may not have seen those changes.
+ */
+@Service
+public class SessionStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionStatsService.class);
+
+    private static final int PENDING = 0;
+    private static final int APPROVED = 1;
+    private static final int REJECTED = 2;
+    private static final int COMPLETED = 3;
+    private static final int REVIEWS = 4;
+
+    private final MentorshipSessionRepository sessionRepository;
+    private final ArchivedSessionRepository archivedSessionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Counters> mentors = new ConcurrentHashMap<>();
+    private final Counters platform = new Counters();
+
+    public SessionStatsService(MentorshipSessionRepository sessionRepository,
+                               ArchivedSessionRepository archivedSessionRepository,
+                               ApplicationEventPublisher eventPublisher) {
+        this.sessionRepository = sessionRepository;
+        this.archivedSessionRepository = archivedSessionRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /*
+     * Records a new pending session. Must be called inside the transaction that creates it.
+     */
+    public void recordCreated(Long mentorId) {
+        eventPublisher.publishEvent(new SessionCountsChangedEvent(mentorId, 1, 0, 0, 0, 0));
+    }
+
+    /*
+     * Records that sessions of the mentor moved to status. Must be called inside the transaction
+     * that changed them.
+     */
+    public void recordStatusChange(Long mentorId, SessionStatus status, int sessions) {
+        if (sessions <= 0) {
+            return;
+        }
+        long[] delta = new long[REVIEWS + 1];
+        // The allowed sources of a status all fall in one counted group (pending, or approved)
+        delta[group(status.allowedSources().iterator().next())] -= sessions;
+        delta[group(status)] += sessions;
+        eventPublisher.publishEvent(new SessionCountsChangedEvent(mentorId,
+                delta[PENDING], delta[APPROVED], delta[REJECTED], delta[COMPLETED], 0));
+    }
+
+    /*
+     * Records that a session review went from oldScore to newScore (either may be null).
+     */
+    public void recordReviewChange(Long mentorId, Integer oldScore, Integer newScore) {
+        long reviews = (newScore != null ? 1 : 0) - (oldScore != null ? 1 : 0);
+        if (reviews != 0) {
+            eventPublisher.publishEvent(new SessionCountsChangedEvent(mentorId, 0, 0, 0, 0, reviews));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountsChanged(SessionCountsChangedEvent event) {
+        long[] delta = {event.pending(), event.approved(), event.rejected(), event.completed(), event.reviews()};
+        mentors.computeIfAbsent(event.mentorId(), id -> new Counters()).add(delta);
+        platform.add(delta);
+    }
+
+    public SessionCounts getMentorCounts(Long mentorId) {
+        Counters counters = mentors.get(mentorId);
+        return counters == null ? new SessionCounts(0, 0, 0, 0, 0) : counters.snapshot();
+    }
+
+    public SessionCounts getPlatformCounts() {
+        return platform.snapshot();
+    }
+
+    /*
+     * Brings the counters in line with the sessions and archive tables. Both are counted in one
+     * read-only transaction, so a session being archived meanwhile is counted exactly once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${sessions.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${sessions.stats.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        Map<Long, Long> updatesBefore = new HashMap<>();
+        mentors.forEach((mentorId, counters) -> updatesBefore.put(mentorId, counters.updates.sum()));
+
+        Map<Long, long[]> expected = new HashMap<>();
+        List<MentorStatusCount> counts = new ArrayList<>(sessionRepository.countByMentorAndStatus());
+        counts.addAll(archivedSessionRepository.countByMentorAndStatus());
+        for (MentorStatusCount count : counts) {
+            long[] values = expected.computeIfAbsent(count.getMentorId(), id -> new long[REVIEWS + 1]);
+            values[group(count.getStatus())] += count.getSessions();
+            values[REVIEWS] += count.getReviews();
+        }
+
+        Set<Long> mentorIds = new HashSet<>(expected.keySet());
+        mentorIds.addAll(mentors.keySet());
+        int corrected = 0;
+        int skipped = 0;
+        for (Long mentorId : mentorIds) {
+            Counters counters = mentors.computeIfAbsent(mentorId, id -> new Counters());
+            if (counters.updates.sum() != updatesBefore.getOrDefault(mentorId, 0L)) {
+                skipped++;
+                continue;
+            }
+            long[] target = expected.getOrDefault(mentorId, new long[REVIEWS + 1]);
+            long[] drift = new long[REVIEWS + 1];
+            boolean drifted = false;
+            for (int i = 0; i < drift.length; i++) {
+                drift[i] = target[i] - counters.values[i].sum();
+                drifted |= drift[i] != 0;
+            }
+            if (drifted) {
+                // Not counted as an update: the correction is not a change made since the query
+                counters.correct(drift);
+                platform.correct(drift);
+                corrected++;
+            }
+        }
+        if (corrected > 0 || skipped > 0) {
+            log.info("Reconciled session counters for {} mentors: {} corrected, {} changing and left for the next round",
+                    mentorIds.size(), corrected, skipped);
+        }
+    }
+
+    private static int group(SessionStatus status) {
+        return switch (status) {
+            case PENDING -> PENDING;
+            case APPROVED, ACCEPTED -> APPROVED;
+            case REJECTED -> REJECTED;
+            case COMPLETED -> COMPLETED;
+        };
+    }
+
+    private static final class Counters {
+        private final LongAdder[] values = new LongAdder[REVIEWS + 1];
+        // Number of applied changes, so reconcile can tell whether the counters moved under it
+        private final LongAdder updates = new LongAdder();
+
+        private Counters() {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = new LongAdder();
+            }
+        }
+
+        void add(long[] delta) {
+            correct(delta);
+            updates.increment();
+        }
+
+        void correct(long[] delta) {
+            for (int i = 0; i < delta.length; i++) {
+                if (delta[i] != 0) {
+                    values[i].add(delta[i]);
+                }
+            }
+        }
+
+        SessionCounts snapshot() {
+            return new SessionCounts(values[PENDING].sum(), values[APPROVED].sum(), values[REJECTED].sum(),
+                    values[COMPLETED].sum(), values[REVIEWS].sum());
+        }
+    }
+}
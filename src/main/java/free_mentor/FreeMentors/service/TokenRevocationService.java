@@ -0,0 +1,93 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.dto.JwtPrincipal;
+import free_mentor.FreeMentors.entity.RevokedToken;
+import free_mentor.FreeMentors.repository.RevokedTokenRepository;
+import free_mentor.FreeMentors.utils.Hashing;
+import free_mentor.FreeMentors.utils.RevocationList;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Revokes tokens by jti. Checks are served from the in-memory RevocationList; the revoked_tokens
+ * table makes revocations durable and is polled so that logouts on other nodes are enforced here too.
+ * Row ids become visible at commit, not in id order, so each poll re-reads lookbackIds ids below
+ * the highest one seen; revoking a hash that is already in the list changes nothing.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevocationList revocationList;
+    private final long lookbackIds;
+    private long lastSeenId;
+    // One sync at a time; a ReentrantLock so a virtual thread waiting on the query does not pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${jwt.refresh-token-ttl-seconds:1209600}") long maxTokenLifetimeSeconds,
+                                  @Value("${jwt.revocation.lookback-ids:1000}") long lookbackIds) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.lookbackIds = lookbackIds;
+        this.revocationList = new RevocationList(maxTokenLifetimeSeconds * 1000, 60_000);
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        // Tokens issued without a jti cannot be revoked individually
+        return principal.getTokenId() != null
+                && revocationList.isRevoked(Hashing.hash64(principal.getTokenId()), principal.getExpiration().getTime());
+    }
+
+    public void revoke(JwtPrincipal principal) {
+        revokeOnce(principal);
+    }
+
+    /*
+     * Revokes the token if no one has yet, on any node. The unique insert is the single point of
+     * decision, so of several concurrent calls for one token exactly one returns true.
+     *
+     * @return true if this call revoked the token
+     */
+    public boolean revokeOnce(JwtPrincipal principal) {
+        if (principal.getTokenId() == null) {
+            return false;
+        }
+        long tokenHash = Hashing.hash64(principal.getTokenId());
+        revocationList.revoke(tokenHash, principal.getExpiration().getTime());
+        return revokedTokenRepository.insertIfAbsent(tokenHash, principal.getExpiration().toInstant()) == 1;
+    }
+
+    @PostConstruct
+    public void load() {
+        sync();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        lock.lock();
+        try {
+            for (RevokedToken token : revokedTokenRepository.findByIdGreaterThanAndExpiresAtAfterOrderById(
+                    Math.max(0, lastSeenId - lookbackIds), Instant.now())) {
+                revocationList.revoke(token.getTokenHash(), token.getExpiresAt().toEpochMilli());
+                lastSeenId = Math.max(lastSeenId, token.getId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        revocationList.purgeExpired(System.currentTimeMillis());
+        revokedTokenRepository.deleteExpired(Instant.now());
+    }
+}
@@ -0,0 +1,42 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.utils.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/*
+ * Bounded, TTL-evicting UserDetails cache keyed by email.
+ * Only consulted when the filter runs in "lookup" mode; entries must be evicted
+ * whenever a user's role changes so the new authorities are picked up at once.
+ */
+@Component
+public class UserDetailsCache implements UserCache {
+
+    private final TtlCache<String, UserDetails> cache;
+
+    public UserDetailsCache(@Value("${auth.user-cache.max-size:10000}") int maxSize,
+                            @Value("${auth.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new TtlCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.get(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+}
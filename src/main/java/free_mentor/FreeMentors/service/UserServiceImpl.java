@@ -10,8 +10,9 @@ import free_mentor.FreeMentors.dto.SignupRequest;
 import free_mentor.FreeMentors.entity.User;
 import free_mentor.FreeMentors.exception.AuthenticationException;
 import free_mentor.FreeMentors.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -21,19 +22,33 @@ public class UserServiceImpl implements IUserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private EmailIndex emailIndex;
 
     @Override
     public User authenticateUser(LoginRequest request) {
+        // Unknown emails are rejected without loading a user row or hashing
+        if (!emailIndex.mightExist(request.getEmail())) {
+            throw new AuthenticationException("Invalid email or password");
+        }
+
         // Check if the user exists in the database
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new AuthenticationException("Invalid email or password"));
 
-        // Validate the password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        // Validate the password on the dedicated hashing pool
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new AuthenticationException("Invalid email or password");
         }
 
+        // Transparently upgrade hashes created with a lower BCrypt strength
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
+            user = userRepository.save(user);
+        }
+
         return user;
     }
 
@@ -41,7 +56,8 @@ public class UserServiceImpl implements IUserService {
 
     @Override
     public User createUser(SignupRequest request) {
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+        // Skip the hash for an email that is already taken; the index keeps the check off new emails
+        if (emailIndex.mightExist(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
             throw new IllegalArgumentException("Email already exists");
         }
 
@@ -49,13 +65,36 @@ public class UserServiceImpl implements IUserService {
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setAddress(request.getAddress());
         user.setBio(request.getBio());
         user.setOccupation(request.getOccupation());
         user.setExpertise(request.getExpertise());
 
-        return userRepository.save(user);
+        // The unique key on email settles concurrent signups for the same address
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e, user.getEmail())) {
+                throw new IllegalArgumentException("Email already exists");
+            }
+            throw e;
+        }
+
+        emailIndex.add(saved.getEmail());
+        return saved;
+    }
+
+    /*
+     * Whether the insert failed on the email key. The key's name depends on the Hibernate version
+     * that created the schema, so a unique violation counts only if the email is now taken;
+     * NOT NULL, length and other violations are real errors.
+     */
+    private boolean isDuplicateEmail(DataIntegrityViolationException e, String email) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                && userRepository.existsByEmail(email);
     }
 
     @Override
@@ -0,0 +1,54 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+ * Encodes keyset-pagination positions as opaque, URL-safe cursors.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "\u0000";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(parts[i] == null ? "" : parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+     * @throws IllegalArgumentException if the cursor is not one this codec produced with the expected arity
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+
+    public static long decodeId(String cursor) {
+        try {
+            return Long.parseLong(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.utils;
+
+/*
+ * Fast, non-cryptographic 64-bit string hashing shared by the in-memory indexes.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /*
+     * FNV-1a over the UTF-16 chars followed by the SplitMix64 finalizer,
+     * which spreads the result over all 64 bits.
+     */
+    public static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix64(hash);
+    }
+
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
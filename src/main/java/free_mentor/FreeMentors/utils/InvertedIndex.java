@@ -0,0 +1,235 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * In-memory inverted index with BM25 ranking.
+ *
+ * Documents are identified externally by a long key and internally by a dense int slot. Each term
+ * maps to a posting list of primitive (slot, weighted term frequency) arrays. Replacing or removing
+ * a document updates only the posting lists of its own terms; freed slots are reclaimed by
+ * compaction once they outnumber the live documents. Reads share a read lock, updates take the write lock.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> slotByKey = new HashMap<>();
+    private long[] keys = new long[64];
+    private float[] lengths = new float[64];
+    private String[][] termsBySlot = new String[64][];
+    private int slotCount;
+    private double totalLength;
+
+    public record Hit(long key, double score) {
+    }
+
+    /*
+     * Indexes (or re-indexes) a document from its weighted term frequencies.
+     */
+    public void put(long key, Map<String, Float> termFrequencies) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            if (termFrequencies.isEmpty()) {
+                return;
+            }
+            if (slotCount == keys.length) {
+                grow();
+            }
+            int slot = slotCount++;
+            float length = 0;
+            for (Map.Entry<String, Float> term : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), t -> new PostingList()).add(slot, term.getValue());
+                length += term.getValue();
+            }
+            keys[slot] = key;
+            lengths[slot] = length;
+            termsBySlot[slot] = termFrequencies.keySet().toArray(new String[0]);
+            slotByKey.put(key, slot);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            slotByKey.clear();
+            Arrays.fill(termsBySlot, null);
+            slotCount = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * @return the k best documents for the query terms by BM25 score, best first
+     */
+    public List<Hit> search(List<String> queryTerms, int k) {
+        lock.readLock().lock();
+        try {
+            int liveDocs = slotByKey.size();
+            if (liveDocs == 0 || k <= 0) {
+                return List.of();
+            }
+            double averageLength = totalLength / liveDocs;
+            float[] scores = new float[slotCount];
+            int[] touched = new int[slotCount];
+            int touchedCount = 0;
+
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    double tf = list.frequencies[i];
+                    double norm = K1 * (1 - B + B * lengths[slot] / averageLength);
+                    if (scores[slot] == 0) {
+                        touched[touchedCount++] = slot;
+                    }
+                    scores[slot] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            // Bounded min-heap keeps only the current top k
+            PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1, (a, b) -> compare(scores, a, b));
+            for (int i = 0; i < touchedCount; i++) {
+                heap.offer(touched[i]);
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                int slot = heap.poll();
+                hits.add(new Hit(keys[slot], scores[slot]));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lower score first; on ties the higher key is "lower" so smaller keys win
+    private int compare(float[] scores, int a, int b) {
+        int byScore = Float.compare(scores[a], scores[b]);
+        return byScore != 0 ? byScore : Long.compare(keys[b], keys[a]);
+    }
+
+    private void removeLocked(long key) {
+        Integer slot = slotByKey.remove(key);
+        if (slot == null) {
+            return;
+        }
+        for (String term : termsBySlot[slot]) {
+            PostingList list = postings.get(term);
+            list.remove(slot);
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths[slot];
+        termsBySlot[slot] = null;
+        if (slotCount > 1024 && slotCount - slotByKey.size() > slotByKey.size()) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] newSlot = new int[slotCount];
+        int next = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (termsBySlot[slot] != null) {
+                newSlot[slot] = next;
+                keys[next] = keys[slot];
+                lengths[next] = lengths[slot];
+                termsBySlot[next] = termsBySlot[slot];
+                slotByKey.put(keys[next], next);
+                next++;
+            }
+        }
+        Arrays.fill(termsBySlot, next, slotCount, null);
+        slotCount = next;
+        for (PostingList list : postings.values()) {
+            for (int i = 0; i < list.size; i++) {
+                list.slots[i] = newSlot[list.slots[i]];
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        termsBySlot = Arrays.copyOf(termsBySlot, capacity);
+    }
+
+    private static final class PostingList {
+        private int[] slots = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        void add(int slot, float frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                    System.arraycopy(frequencies, i + 1, frequencies, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/*
+ * HMAC signing keys shared by every node, identified by key id ("kid").
+ *
+ * Keys are read from either a properties file (kid=base64 secret per line) or a PKCS12/JKS
+ * keystore whose secret-key entry aliases are the key ids. The active key signs new tokens;
+ * every key in the ring verifies them, so a rotation is:
+ *   1. add the new key to the ring on all nodes,
+ *   2. switch jwt.keyring.active-kid to it,
+ *   3. drop the old key once the tokens it signed have expired.
+ *
+ * Without a configured path a random per-process key is generated, which is only
+ * suitable for a single development instance.
+ */
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String DEV_KID = "dev";
+
+    private final Map<String, Key> verificationKeys;
+    private final String activeKid;
+    private final Key activeKey;
+
+    public JwtKeyRing(@Value("${jwt.keyring.path:}") String path,
+                      @Value("${jwt.keyring.active-kid:}") String activeKid,
+                      @Value("${jwt.keyring.password:}") String password) {
+        Map<String, Key> keys;
+        if (path == null || path.isBlank()) {
+            log.warn("jwt.keyring.path is not set; using a random signing key valid for this process only");
+            keys = Map.of(DEV_KID, Keys.secretKeyFor(SignatureAlgorithm.HS256));
+            activeKid = DEV_KID;
+        } else {
+            keys = load(Path.of(path), password);
+        }
+
+        if (activeKid == null || activeKid.isBlank()) {
+            throw new IllegalStateException("jwt.keyring.active-kid must be set when jwt.keyring.path is configured");
+        }
+        if (!keys.containsKey(activeKid)) {
+            throw new IllegalStateException("Active JWT key id '" + activeKid + "' is not in the keyring");
+        }
+
+        this.verificationKeys = Collections.unmodifiableMap(keys);
+        this.activeKid = activeKid;
+        this.activeKey = keys.get(activeKid);
+        log.info("Loaded {} JWT signing key(s), active kid '{}'", keys.size(), activeKid);
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public Key getActiveKey() {
+        return activeKey;
+    }
+
+    /*
+     * Resolves the verification key from the token's kid header.
+     * Tokens without a kid, or with a kid this node does not know, are rejected.
+     */
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        Key key = kid == null ? null : verificationKeys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT signing key id: " + kid);
+        }
+        return key;
+    }
+
+    private static Map<String, Key> load(Path path, String password) {
+        String fileName = path.getFileName().toString().toLowerCase();
+        try {
+            if (fileName.endsWith(".p12") || fileName.endsWith(".pfx") || fileName.endsWith(".jks")) {
+                return loadKeyStore(path, fileName.endsWith(".jks") ? "JKS" : "PKCS12", password);
+            }
+            return loadProperties(path);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to load JWT keyring from " + path, e);
+        }
+    }
+
+    private static Map<String, Key> loadProperties(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        }
+
+        Map<String, Key> keys = new LinkedHashMap<>();
+        for (String kid : properties.stringPropertyNames()) {
+            byte[] secret = Base64.getDecoder().decode(properties.getProperty(kid).trim());
+            // hmacShaKeyFor rejects secrets shorter than 256 bits
+            keys.put(kid, Keys.hmacShaKeyFor(secret));
+        }
+        return keys;
+    }
+
+    private static Map<String, Key> loadKeyStore(Path path, String type, String password)
+            throws IOException, GeneralSecurityException {
+        char[] secret = password == null ? new char[0] : password.toCharArray();
+        KeyStore keyStore = KeyStore.getInstance(type);
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore.load(in, secret);
+        }
+
+        Map<String, Key> keys = new LinkedHashMap<>();
+        Enumeration<String> aliases = keyStore.aliases();
+        while (aliases.hasMoreElements()) {
+            String alias = aliases.nextElement();
+            if (keyStore.isKeyEntry(alias)) {
+                Key key = keyStore.getKey(alias, secret);
+                keys.put(alias, Keys.hmacShaKeyFor(key.getEncoded()));
+            }
+        }
+        return keys;
+    }
+}
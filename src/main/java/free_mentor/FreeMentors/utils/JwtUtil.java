@@ -4,21 +4,62 @@ Group 18
 
 package free_mentor.FreeMentors.utils;
 
+import free_mentor.FreeMentors.dto.JwtPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    private final Key secretKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private static final long EXPIRATION_TIME = 10 * 60 * 60 * 1000; // 10 hours
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
+    private final JwtKeyRing keyRing;
+    private final long accessTokenTtlMillis;
+    private final long refreshTokenTtlMillis;
+
+    // Parsers are immutable and thread-safe, so build it once instead of per call
+    private final JwtParser jwtParser;
+
+    public JwtUtil(JwtKeyRing keyRing,
+                   @Value("${jwt.access-token-ttl-seconds:900}") long accessTokenTtlSeconds,
+                   @Value("${jwt.refresh-token-ttl-seconds:1209600}") long refreshTokenTtlSeconds) {
+        this.keyRing = keyRing;
+        this.accessTokenTtlMillis = accessTokenTtlSeconds * 1000;
+        this.refreshTokenTtlMillis = refreshTokenTtlSeconds * 1000;
+        // The key ring resolves the verification key from the token's kid header
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .build();
+    }
+
+    /*
+     * Verifies the signature and expiry of the token exactly once and returns its claims
+     * as a typed principal.
+     *
+     * @param token The compact JWT without the "Bearer " prefix
+     * @return The verified principal
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public JwtPrincipal parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        return new JwtPrincipal(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getExpiration(),
+                claims.getId(),
+                // Tokens issued before refresh tokens existed carry no type and are access tokens
+                claims.get("type", String.class) == null ? ACCESS_TOKEN : claims.get("type", String.class)
+        );
+    }
 
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -45,9 +86,7 @@ public String extractUserRole(String token) {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -61,13 +100,32 @@ public String extractUserRole(String token) {
     }
 
     public String generateToken(Long userId, String email, String role) {
+        return buildToken(userId, email, role, ACCESS_TOKEN, accessTokenTtlMillis);
+    }
+
+    /*
+     * Long-lived token accepted only by /auth/refresh to obtain a new access token.
+     */
+    public String generateRefreshToken(Long userId, String email, String role) {
+        return buildToken(userId, email, role, REFRESH_TOKEN, refreshTokenTtlMillis);
+    }
+
+    public long getAccessTokenTtlSeconds() {
+        return accessTokenTtlMillis / 1000;
+    }
+
+    private String buildToken(Long userId, String email, String role, String type, long ttlMillis) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setHeaderParam("kid", keyRing.getActiveKid())
+                .setId(UUID.randomUUID().toString()) // jti, used for revocation
                 .setSubject(email)
                 .claim("userId", userId)  // Include userId
                 .claim("role", role)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(secretKey)
+                .claim("type", type)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMillis))
+                .signWith(keyRing.getActiveKey())
                 .compact();
     }
 
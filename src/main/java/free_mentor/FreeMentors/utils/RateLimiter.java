@@ -0,0 +1,60 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Lock-free token-bucket limiter keyed by a 64-bit hash.
+ *
+ * Each key holds a single AtomicLong "theoretical arrival time" (the GCRA form of a token bucket):
+ * a request is allowed if advancing it by one emission interval stays within the burst allowance,
+ * and the advance is committed with one compare-and-set. A key whose arrival time lies in the past
+ * has a full bucket, carries no information, and is removed by evictIdle().
+ */
+public class RateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final ConcurrentHashMap<Long, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /*
+     * @param permitsPerMinute Sustained rate
+     * @param burst            Requests allowed back to back on an idle key
+     */
+    public RateLimiter(int permitsPerMinute, int burst) {
+        this.emissionIntervalNanos = 60_000_000_000L / Math.max(1, permitsPerMinute);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+    }
+
+    /*
+     * @return 0 if the request is allowed, otherwise the nanoseconds to wait before retrying
+     */
+    public long tryAcquire(long key) {
+        long now = System.nanoTime();
+        AtomicLong state = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long arrival = state.get();
+            long tat = Math.max(arrival, now);
+            long wait = tat - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (state.compareAndSet(arrival, tat + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Set of revoked token-id hashes, bucketed by the token's expiry time.
+ *
+ * Buckets live in a ring covering the longest token lifetime. Each bucket is an immutable
+ * sorted long[] replaced by compare-and-set on insert (revocations are rare), so a lookup is a
+ * lock-free array read plus a binary search in the single bucket the token's expiry maps to.
+ * Once a bucket's expiry has passed every token in it is invalid anyway, and the whole bucket is dropped.
+ */
+public class RevocationList {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> ring;
+
+    public RevocationList(long maxTokenLifetimeMillis, long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.ring = new AtomicReferenceArray<>((int) (maxTokenLifetimeMillis / bucketMillis) + 2);
+    }
+
+    public void revoke(long tokenHash, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return; // already unusable
+        }
+        long slot = expiresAtMillis / bucketMillis;
+        int index = (int) Math.floorMod(slot, ring.length());
+        while (true) {
+            Bucket current = ring.get(index);
+            if (current != null && current.slot > slot) {
+                return; // ring has moved past this expiry
+            }
+            long[] hashes = current != null && current.slot == slot ? current.hashes : EMPTY;
+            int position = Arrays.binarySearch(hashes, tokenHash);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            long[] updated = new long[hashes.length + 1];
+            System.arraycopy(hashes, 0, updated, 0, insertAt);
+            updated[insertAt] = tokenHash;
+            System.arraycopy(hashes, insertAt, updated, insertAt + 1, hashes.length - insertAt);
+            if (ring.compareAndSet(index, current, new Bucket(slot, updated))) {
+                return;
+            }
+        }
+    }
+
+    public boolean isRevoked(long tokenHash, long expiresAtMillis) {
+        long slot = expiresAtMillis / bucketMillis;
+        Bucket bucket = ring.get((int) Math.floorMod(slot, ring.length()));
+        return bucket != null && bucket.slot == slot && Arrays.binarySearch(bucket.hashes, tokenHash) >= 0;
+    }
+
+    /*
+     * Drops every bucket whose tokens have all expired.
+     */
+    public void purgeExpired(long nowMillis) {
+        long currentSlot = nowMillis / bucketMillis;
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.slot < currentSlot) {
+                ring.compareAndSet(i, bucket, null);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null) {
+                size += bucket.hashes.length;
+            }
+        }
+        return size;
+    }
+
+    private record Bucket(long slot, long[] hashes) {
+    }
+}
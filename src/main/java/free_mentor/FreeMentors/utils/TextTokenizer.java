@@ -0,0 +1,56 @@
+/*
+Group 18
+ */
+
+package free_mentor.FreeMentors.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/*
+ * Splits free text into normalized search terms: accents stripped, lower-cased, split on
+ * anything that is not a letter or digit, with one-character tokens and common English
+ * stop words dropped.
+ */
+public final class TextTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "how", "i",
+            "in", "is", "it", "my", "of", "on", "or", "that", "the", "this", "to", "was", "what",
+            "with", "you", "your", "me", "we", "can", "do", "about", "am");
+
+    private TextTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c) || c == '+' || c == '#') {
+                // keep "c++" and "c#" searchable
+                current.append(c);
+            } else if (!current.isEmpty()) {
+                addToken(tokens, current.toString());
+                current.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String token) {
+        if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+            tokens.add(token);
+        }
+    }
+}
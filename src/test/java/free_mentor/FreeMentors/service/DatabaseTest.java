@@ -0,0 +1,67 @@
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.entity.MentorshipSession;
+import free_mentor.FreeMentors.entity.Role;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.entity.User;
+import free_mentor.FreeMentors.repository.MentorshipSessionRepository;
+import free_mentor.FreeMentors.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/*
+ * Base for tests against the in-memory test database. Each test runs in a transaction that is
+ * rolled back afterwards, so fixtures never leak into other tests.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+abstract class DatabaseTest {
+
+	@Autowired
+	protected UserRepository userRepository;
+
+	@Autowired
+	protected MentorshipSessionRepository sessionRepository;
+
+	@PersistenceContext
+	protected EntityManager entityManager;
+
+	/*
+	 * Writes pending changes and forgets loaded entities, as the end of a request would. Needed
+	 * after bulk updates, which bypass entities already loaded in the test's transaction.
+	 */
+	protected void endRequest() {
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	protected User saveUser(Role role) {
+		return userRepository.save(User.builder()
+				.firstName("Test")
+				.lastName(role.name())
+				.email(UUID.randomUUID() + "@example.com")
+				.password("not-a-hash")
+				.role(role)
+				.build());
+	}
+
+	protected Long saveSession(User mentor, User mentee, SessionStatus status, Integer score, Instant updatedAt) {
+		return sessionRepository.save(MentorshipSession.builder()
+				.mentor(mentor)
+				.mentee(mentee)
+				.questions("Career advice")
+				.menteeEmail(mentee.getEmail())
+				.status(status)
+				.score(score)
+				.updatedAt(updatedAt)
+				.build()).getId();
+	}
+}
@@ -0,0 +1,152 @@
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.dto.SessionUpdateResult;
+import free_mentor.FreeMentors.dto.SessionView;
+import free_mentor.FreeMentors.entity.Role;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Row locks are only visible between transactions, so these tests commit their fixtures and
+ * delete them afterwards instead of rolling back.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MentorshipSessionBulkUpdateTest extends DatabaseTest {
+
+	// Well below H2's default lock timeout of one second
+	private static final long BLOCKED_MILLIS = 200;
+
+	@Autowired
+	private MentorshipSessionService sessionService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+	private final List<User> users = new ArrayList<>();
+	private final List<Long> sessions = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		executor.shutdownNow();
+		sessionRepository.deleteAllById(sessions);
+		userRepository.deleteAll(users);
+	}
+
+	@Test
+	void lockingReadHoldsOnlyTheMentorsOwnSessions() throws Exception {
+		User mentor = user(Role.MENTOR);
+		User otherMentor = user(Role.MENTOR);
+		User mentee = user(Role.USER);
+		Long own = session(mentor, mentee);
+		Long foreign = session(otherMentor, mentee);
+
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<List<SessionView>> holder = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+			List<SessionView> views = sessionRepository.lockViewsByMentorAndIdIn(mentor.getId(), List.of(own, foreign));
+			locked.countDown();
+			await(release);
+			return views;
+		}));
+		assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+		// The other mentor's session is not locked, so changing it does not wait
+		assertEquals(1, approve(foreign, otherMentor));
+
+		Future<Integer> blocked = executor.submit(() -> approve(own, mentor));
+		assertThrows(TimeoutException.class, () -> blocked.get(BLOCKED_MILLIS, TimeUnit.MILLISECONDS));
+		release.countDown();
+		assertEquals(1, blocked.get(5, TimeUnit.SECONDS));
+
+		List<SessionView> views = holder.get(5, TimeUnit.SECONDS);
+		assertEquals(1, views.size());
+		assertEquals(own, views.get(0).getSessionId());
+	}
+
+	@Test
+	void bulkUpdateClassifiesSessionsChangedWhileItWaited() throws Exception {
+		User mentor = user(Role.MENTOR);
+		User mentee = user(Role.USER);
+		Long changed = session(mentor, mentee);
+		Long unchanged = session(mentor, mentee);
+
+		// Another request locks one session and rejects it, then commits while the bulk update waits
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<?> rejecter = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			sessionRepository.lockViewsByMentorAndIdIn(mentor.getId(), List.of(changed));
+			sessionRepository.transitionStatuses(List.of(changed), mentor.getId(), SessionStatus.REJECTED.allowedSources(),
+					SessionStatus.REJECTED, Instant.now());
+			locked.countDown();
+			await(release);
+		}));
+		assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+		// Rolled back, so no status events outlive the test
+		Future<List<SessionUpdateResult>> bulk = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+			List<SessionUpdateResult> results = sessionService.updateSessionStatuses(mentor.getId(), List.of(changed, unchanged), "APPROVED");
+			status.setRollbackOnly();
+			return results;
+		}));
+		assertThrows(TimeoutException.class, () -> bulk.get(BLOCKED_MILLIS, TimeUnit.MILLISECONDS));
+		release.countDown();
+		rejecter.get(5, TimeUnit.SECONDS);
+
+		List<SessionUpdateResult> results = bulk.get(5, TimeUnit.SECONDS);
+		assertFalse(results.get(0).isUpdated());
+		assertEquals(SessionStatus.REJECTED, results.get(0).getStatus());
+		assertEquals("Cannot change session status from REJECTED to APPROVED", results.get(0).getError());
+		assertTrue(results.get(1).isUpdated());
+		assertNull(results.get(1).getError());
+	}
+
+	private int approve(Long sessionId, User mentor) {
+		return sessionRepository.transitionStatus(sessionId, mentor.getId(), Set.of(SessionStatus.PENDING),
+				SessionStatus.APPROVED, Instant.now());
+	}
+
+	private User user(Role role) {
+		User user = saveUser(role);
+		users.add(user);
+		return user;
+	}
+
+	private Long session(User mentor, User mentee) {
+		Long id = saveSession(mentor, mentee, SessionStatus.PENDING, null, Instant.now());
+		sessions.add(id);
+		return id;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
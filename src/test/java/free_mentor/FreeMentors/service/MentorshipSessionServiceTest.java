@@ -0,0 +1,40 @@
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.entity.MentorshipSession;
+import free_mentor.FreeMentors.entity.Role;
+import free_mentor.FreeMentors.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MentorshipSessionServiceTest extends DatabaseTest {
+
+	@Autowired
+	private MentorshipSessionService sessionService;
+
+	@Test
+	void completedSessionCanBeReviewed() {
+		User mentor = saveUser(Role.MENTOR);
+		User mentee = saveUser(Role.USER);
+		Long sessionId = sessionService.createSession(mentee.getId(), mentor.getId(), "Career advice").getSession().getId();
+
+		sessionService.updateSessionStatus(sessionId, mentor.getId(), "APPROVED");
+		sessionService.updateSessionStatus(sessionId, mentor.getId(), "COMPLETED");
+		endRequest();
+		MentorshipSession reviewed = sessionService.reviewMentor(sessionId, mentee.getId(), 5, "Very helpful");
+
+		assertEquals(5, reviewed.getScore());
+		assertEquals("Very helpful", reviewed.getRemark());
+	}
+
+	@Test
+	void pendingSessionCannotBeReviewed() {
+		User mentor = saveUser(Role.MENTOR);
+		User mentee = saveUser(Role.USER);
+		Long sessionId = sessionService.createSession(mentee.getId(), mentor.getId(), "Career advice").getSession().getId();
+
+		assertThrows(RuntimeException.class, () -> sessionService.reviewMentor(sessionId, mentee.getId(), 5, "Too early"));
+	}
+}
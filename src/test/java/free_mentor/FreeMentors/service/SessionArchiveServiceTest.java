@@ -0,0 +1,72 @@
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.entity.Role;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.entity.User;
+import free_mentor.FreeMentors.repository.ArchivedSessionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionArchiveServiceTest extends DatabaseTest {
+
+	private static final Instant LONG_AGO = Instant.now().minus(Duration.ofDays(365));
+
+	@Autowired
+	private SessionArchiveService archiveService;
+
+	@Autowired
+	private ArchivedSessionRepository archivedSessionRepository;
+
+	@Test
+	void legacySessionsWithoutUpdatedAtStayLiveAndGetTheirClockStarted() {
+		User mentor = saveUser(Role.MENTOR);
+		User mentee = saveUser(Role.USER);
+		Long legacyApproved = saveSession(mentor, mentee, SessionStatus.APPROVED, null, null);
+		Long legacyCompleted = saveSession(mentor, mentee, SessionStatus.COMPLETED, 4, null);
+		endRequest();
+
+		archiveService.archive();
+		endRequest();
+
+		assertLive(legacyApproved);
+		assertLive(legacyCompleted);
+		assertNotNull(sessionRepository.findById(legacyApproved).orElseThrow().getUpdatedAt());
+		assertNotNull(sessionRepository.findById(legacyCompleted).orElseThrow().getUpdatedAt());
+	}
+
+	@Test
+	void onlyOldFinishedSessionsAreArchived() {
+		User mentor = saveUser(Role.MENTOR);
+		User mentee = saveUser(Role.USER);
+		Long oldApproved = saveSession(mentor, mentee, SessionStatus.APPROVED, 5, LONG_AGO);
+		Long oldCompleted = saveSession(mentor, mentee, SessionStatus.COMPLETED, null, LONG_AGO);
+		Long oldRejected = saveSession(mentor, mentee, SessionStatus.REJECTED, null, LONG_AGO);
+		Long recentCompleted = saveSession(mentor, mentee, SessionStatus.COMPLETED, null, Instant.now());
+		endRequest();
+
+		archiveService.archive();
+		endRequest();
+
+		assertLive(oldApproved);
+		assertLive(recentCompleted);
+		assertArchived(oldCompleted);
+		assertArchived(oldRejected);
+	}
+
+	private void assertLive(Long sessionId) {
+		assertTrue(sessionRepository.existsById(sessionId));
+		assertFalse(archivedSessionRepository.existsById(sessionId));
+	}
+
+	private void assertArchived(Long sessionId) {
+		assertFalse(sessionRepository.existsById(sessionId));
+		assertTrue(archivedSessionRepository.existsById(sessionId));
+	}
+}
@@ -0,0 +1,131 @@
+package free_mentor.FreeMentors.service;
+
+import free_mentor.FreeMentors.entity.SessionEventLogEntry;
+import free_mentor.FreeMentors.entity.SessionStatus;
+import free_mentor.FreeMentors.event.SessionChangedEvent;
+import free_mentor.FreeMentors.repository.MentorSessionStatsRepository;
+import free_mentor.FreeMentors.repository.SessionEventLogRepository;
+import free_mentor.FreeMentors.repository.SessionProjectionGapRepository;
+import free_mentor.FreeMentors.repository.SessionReadModelRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Out-of-order commits need separate transactions, so this test commits its log entries and
+ * deletes them and their projections afterwards instead of rolling back.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SessionProjectionServiceTest extends DatabaseTest {
+
+	// Ids no fixture user or session gets, so the read models cannot collide with other tests
+	private static final long MENTOR_ID = 9_000_001L;
+	private static final long MENTEE_ID = 9_000_002L;
+
+	@Autowired
+	private SessionProjectionService projectionService;
+
+	@Autowired
+	private SessionEventLogRepository logRepository;
+
+	@Autowired
+	private SessionReadModelRepository readModelRepository;
+
+	@Autowired
+	private MentorSessionStatsRepository statsRepository;
+
+	@Autowired
+	private SessionProjectionGapRepository gapRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+	private final List<Long> entries = new ArrayList<>();
+	private final List<Long> sessions = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		executor.shutdownNow();
+		logRepository.deleteAllById(entries);
+		gapRepository.deleteAllById(entries);
+		readModelRepository.deleteAllById(sessions);
+		statsRepository.deleteById(MENTOR_ID);
+	}
+
+	@Test
+	void entryCommittedAfterTheProjectorMovedPastItIsAppliedLater() throws Exception {
+		long slowSession = 9_100_001L;
+		long fastSession = 9_100_002L;
+		sessions.addAll(List.of(slowSession, fastSession));
+
+		// A slow transaction takes the lower log id and stays open
+		CountDownLatch inserted = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		Future<Long> slow = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+			Long id = logRepository.save(entry(slowSession, Instant.now())).getId();
+			inserted.countDown();
+			await(commit);
+			return id;
+		}));
+		assertTrue(inserted.await(5, TimeUnit.SECONDS));
+
+		// A higher id commits first and is older than the gap timeout, so the projector moves past the gap
+		Long fast = logRepository.save(entry(fastSession, Instant.now().minus(Duration.ofMinutes(1)))).getId();
+		entries.add(fast);
+		projectionService.project();
+
+		assertTrue(readModelRepository.existsById(fastSession));
+		assertFalse(readModelRepository.existsById(slowSession));
+
+		commit.countDown();
+		Long late = slow.get(5, TimeUnit.SECONDS);
+		entries.add(late);
+		assertTrue(late < fast);
+		assertTrue(gapRepository.existsById(late));
+
+		projectionService.project();
+
+		assertTrue(readModelRepository.existsById(slowSession));
+		assertEquals(SessionStatus.PENDING, readModelRepository.findById(slowSession).orElseThrow().getStatus());
+		assertFalse(gapRepository.existsById(late));
+		assertEquals(2, statsRepository.findById(MENTOR_ID).orElseThrow().getPending());
+	}
+
+	private static SessionEventLogEntry entry(long sessionId, Instant occurredAt) {
+		return SessionEventLogEntry.builder()
+				.type(SessionChangedEvent.Type.CREATED)
+				.sessionId(sessionId)
+				.mentorId(MENTOR_ID)
+				.menteeId(MENTEE_ID)
+				.status(SessionStatus.PENDING)
+				.occurredAt(occurredAt)
+				.build();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
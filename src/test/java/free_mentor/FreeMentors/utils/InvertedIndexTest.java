@@ -0,0 +1,45 @@
+package free_mentor.FreeMentors.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+	@Test
+	void ranksByBm25AndHonoursUpdates() {
+		InvertedIndex index = new InvertedIndex();
+		index.put(1, Map.of("java", 2f, "spring", 2f));
+		index.put(2, Map.of("java", 1f, "react", 1f, "css", 1f));
+		index.put(3, Map.of("python", 1f));
+
+		List<InvertedIndex.Hit> hits = index.search(List.of("java", "spring"), 10);
+		assertEquals(List.of(1L, 2L), hits.stream().map(InvertedIndex.Hit::key).toList());
+
+		index.put(1, Map.of("python", 1f));
+		assertEquals(List.of(2L), index.search(List.of("java"), 10).stream().map(InvertedIndex.Hit::key).toList());
+
+		index.remove(2);
+		assertTrue(index.search(List.of("java"), 10).isEmpty());
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	void keepsOnlyTopK() {
+		InvertedIndex index = new InvertedIndex();
+		for (long key = 1; key <= 2000; key++) {
+			index.put(key, key >= 1990 ? Map.of("mentor", 1f, "java", 1f) : Map.of("mentor", 1f, "other", 1f));
+		}
+		// Removing most documents forces a compaction of the slots
+		for (long key = 1; key <= 1500; key++) {
+			index.remove(key);
+		}
+
+		List<InvertedIndex.Hit> hits = index.search(List.of("java"), 3);
+		assertEquals(List.of(1990L, 1991L, 1992L), hits.stream().map(InvertedIndex.Hit::key).toList());
+	}
+}
@@ -0,0 +1,64 @@
+package free_mentor.FreeMentors.utils;
+
+import free_mentor.FreeMentors.dto.JwtPrincipal;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTest {
+
+	private static final String KEY_1 = Base64.getEncoder().encodeToString(new byte[32]);
+	private static final String KEY_2 = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void tokenIssuedByOneNodeIsAcceptedByAnother() throws IOException {
+		Path ring = writeRing("k1=" + KEY_1);
+		JwtUtil nodeA = newJwtUtil(new JwtKeyRing(ring.toString(), "k1", ""));
+		JwtUtil nodeB = newJwtUtil(new JwtKeyRing(ring.toString(), "k1", ""));
+
+		JwtPrincipal principal = nodeB.parseToken(nodeA.generateToken(7L, "a@b.com", "MENTOR"));
+
+		assertEquals(7L, principal.getUserId());
+		assertEquals("a@b.com", principal.getEmail());
+		assertEquals("MENTOR", principal.getRole());
+	}
+
+	@Test
+	void tokensSignedWithRetiringKeyStayValidDuringRotation() throws IOException {
+		String oldToken = newJwtUtil(new JwtKeyRing(writeRing("k1=" + KEY_1).toString(), "k1", ""))
+				.generateToken(1L, "old@b.com", "USER");
+
+		JwtUtil rotated = newJwtUtil(new JwtKeyRing(writeRing("k1=" + KEY_1 + "\nk2=" + KEY_2).toString(), "k2", ""));
+
+		assertEquals("old@b.com", rotated.parseToken(oldToken).getEmail());
+		assertEquals("new@b.com", rotated.parseToken(rotated.generateToken(2L, "new@b.com", "USER")).getEmail());
+	}
+
+	@Test
+	void tokenWithUnknownKidIsRejected() throws IOException {
+		String token = newJwtUtil(new JwtKeyRing(writeRing("k1=" + KEY_1).toString(), "k1", ""))
+				.generateToken(1L, "a@b.com", "USER");
+		JwtUtil other = newJwtUtil(new JwtKeyRing(writeRing("k2=" + KEY_2).toString(), "k2", ""));
+
+		assertThrows(JwtException.class, () -> other.parseToken(token));
+	}
+
+	private static JwtUtil newJwtUtil(JwtKeyRing keyRing) {
+		return new JwtUtil(keyRing, 900, 3600);
+	}
+
+	private Path writeRing(String content) throws IOException {
+		return Files.writeString(Files.createTempFile(tempDir, "jwt", ".properties"), content);
+	}
+}
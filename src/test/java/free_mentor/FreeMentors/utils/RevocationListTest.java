@@ -0,0 +1,40 @@
+package free_mentor.FreeMentors.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationListTest {
+
+	private static final long MINUTE = 60_000;
+
+	@Test
+	void revokedTokenIsReportedUntilItsBucketIsPurged() {
+		RevocationList list = new RevocationList(60 * MINUTE, MINUTE);
+		long expiresAt = System.currentTimeMillis() + 10 * MINUTE;
+
+		list.revoke(42L, expiresAt);
+
+		assertTrue(list.isRevoked(42L, expiresAt));
+		assertFalse(list.isRevoked(43L, expiresAt));
+		assertFalse(list.isRevoked(42L, expiresAt + 5 * MINUTE));
+
+		list.purgeExpired(System.currentTimeMillis());
+		assertTrue(list.isRevoked(42L, expiresAt));
+
+		list.purgeExpired(expiresAt + MINUTE);
+		assertFalse(list.isRevoked(42L, expiresAt));
+		assertEquals(0, list.size());
+	}
+
+	@Test
+	void alreadyExpiredTokensAreNotStored() {
+		RevocationList list = new RevocationList(60 * MINUTE, MINUTE);
+
+		list.revoke(1L, System.currentTimeMillis() - 1);
+
+		assertEquals(0, list.size());
+	}
+}